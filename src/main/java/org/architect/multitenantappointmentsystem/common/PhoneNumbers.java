@@ -0,0 +1,36 @@
+package org.architect.multitenantappointmentsystem.common;
+
+/**
+ * Telefon raqamlarini E.164 ko'rinishiga keltirish (+998XXXXXXXXX).
+ * Qidiruv va indeks uchun — "+998 90 123-45-67", "998901234567" va "901234567" bir xil kalitga tushadi.
+ * V10 migratsiyadagi backfill ham xuddi shu qoidalarni ishlatadi.
+ */
+public final class PhoneNumbers {
+
+    private static final String UZ_COUNTRY_CODE = "998";
+    private static final int UZ_NATIONAL_LENGTH = 9;
+
+    private PhoneNumbers() {
+    }
+
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.isEmpty()) {
+            return null;
+        }
+        // Mahalliy 9 xonali raqam — O'zbekiston kodi qo'shiladi
+        if (digits.length() == UZ_NATIONAL_LENGTH) {
+            digits.insert(0, UZ_COUNTRY_CODE);
+        }
+        return "+" + digits;
+    }
+}
@@ -0,0 +1,27 @@
+package org.architect.multitenantappointmentsystem.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keshlarni faqat muvaffaqiyatli commit dan keyin yangilash uchun yordamchi.
+ * Rollback bo'lsa amal bajarilmaydi; tranzaksiya bo'lmasa darhol bajariladi.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package org.architect.multitenantappointmentsystem.common.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Node lar orasida lokal keshlarni invalidatsiya qilish — Postgres LISTEN/NOTIFY orqali, alohida broker siz.
+ * publish() joriy tranzaksiya ichida pg_notify chaqiradi: xabar faqat commit dan keyin yetkaziladi,
+ * rollback bo'lsa umuman yuborilmaydi. Har bir node da bitta listener thread xabarlarni o'qib,
+ * subscribe() qilingan keshdan mos yozuvni o'chiradi. Node o'z xabarlarini o'tkazib yuboradi —
+ * publish qiluvchi kesh lokal nusxasini o'zi yangilaydi.
+ * Postgres bo'lmagan DB da (testlardagi H2) bus o'chiq — faqat lokal invalidatsiya ishlaydi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_TIMEOUT_MILLIS = 1_000;
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean configured;
+
+    private final Map<CacheRegion, Subscription> subscriptions = new ConcurrentHashMap<>();
+    // Xabar qaysi node dan kelganini bilish uchun
+    final UUID nodeId = UUID.randomUUID();
+
+    private volatile boolean enabled;
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    void init() {
+        if (!configured) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            enabled = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("DB turini aniqlab bo'lmadi, kesh invalidatsiya bus o'chirildi", e);
+            enabled = false;
+        }
+        if (enabled) {
+            running = true;
+            listener = Thread.ofPlatform()
+                    .name("cache-invalidation-listener")
+                    .daemon()
+                    .start(this::listen);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Kesh o'z lokal invalidatsiyasini ro'yxatdan o'tkazadi (odatda @PostConstruct da)
+     *
+     * @param evict    bitta kalitni o'chirish
+     * @param evictAll listener qayta ulanganda — uzilish vaqtidagi xabarlar yo'qolgan bo'lishi mumkin
+     */
+    public void subscribe(CacheRegion region, Consumer<UUID> evict, Runnable evictAll) {
+        subscriptions.put(region, new Subscription(evict, evictAll));
+    }
+
+    /**
+     * Boshqa node larga xabar beradi. Tranzaksiya ichida chaqirilsa — commit bilan birga yuboriladi
+     */
+    public void publish(CacheRegion region, UUID key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, CHANNEL,
+                region.name() + ":" + key + ":" + nodeId);
+    }
+
+    // "REGION:uuid:nodeId" (eski node lardan — "REGION:uuid")
+    void dispatch(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length != 2 && parts.length != 3) {
+            log.debug("Noto'g'ri invalidatsiya xabari: {}", payload);
+            return;
+        }
+        try {
+            if (parts.length == 3 && nodeId.equals(UUID.fromString(parts[2]))) {
+                return;
+            }
+            CacheRegion region = CacheRegion.valueOf(parts[0]);
+            UUID key = UUID.fromString(parts[1]);
+            Subscription subscription = subscriptions.get(region);
+            if (subscription != null) {
+                subscription.evict().accept(key);
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Noto'g'ri invalidatsiya xabari: {}", payload);
+        }
+    }
+
+    private void evictAll() {
+        subscriptions.values().forEach(subscription -> subscription.evictAll().run());
+    }
+
+    private void listen() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    // Ulanish uzilgan vaqtda kelgan xabarlar yo'qolgan — hammasini qayta yuklatamiz
+                    evictAll();
+                    log.info("Kesh invalidatsiya listener qayta ulandi");
+                }
+                backoff = MIN_BACKOFF_MILLIS;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                reconnecting = true;
+                log.warn("Kesh invalidatsiya listener uzildi, {} ms dan keyin qayta ulanadi", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private record Subscription(Consumer<UUID> evict, Runnable evictAll) {}
+}
@@ -0,0 +1,17 @@
+package org.architect.multitenantappointmentsystem.common.invalidation;
+
+/**
+ * Node lar orasida invalidatsiya qilinadigan lokal keshlar. Kalit — har doim UUID.
+ */
+public enum CacheRegion {
+    // tenantId
+    TENANT,
+    // tenantId
+    SERVICE_CATALOG,
+    // staffId
+    STAFF_SCHEDULE,
+    // userId
+    PRINCIPAL,
+    // staffId — shu staff ning barcha kunlari
+    BOOKING_INTERVALS
+}
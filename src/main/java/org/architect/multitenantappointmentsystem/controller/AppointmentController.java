@@ -1,5 +1,6 @@
 package org.architect.multitenantappointmentsystem.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.dto.*;
@@ -9,15 +10,20 @@ import org.architect.multitenantappointmentsystem.dto.request.RescheduleAppointm
 import org.architect.multitenantappointmentsystem.dto.request.UpdateAppointmentRequest;
 import org.architect.multitenantappointmentsystem.dto.response.*;
 import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.service.export.AppointmentExportFormat;
 import org.architect.multitenantappointmentsystem.service.interfaces.AppointmentService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -151,6 +157,38 @@ public class AppointmentController {
         return ResponseDto.ok(slots).toResponseEntity();
     }
 
+    /**
+     * Sana oralig'i uchun bo'sh vaqtlar
+     * GET /api/appointments/available-slots/range
+     */
+    @GetMapping("/available-slots/range")
+    public ResponseEntity<ResponseDto<List<DailyAvailableSlotsResponse>>> getAvailableSlotsForRange(
+            @PathVariable UUID tenantId,
+            @RequestParam UUID staffId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) UUID serviceId) {
+        List<DailyAvailableSlotsResponse> days =
+                appointmentService.getAvailableSlotsForRange(tenantId, staffId, from, to, serviceId);
+        return ResponseDto.ok(days).toResponseEntity();
+    }
+
+    /**
+     * Xizmat uchun eng yaqin bo'sh vaqtlar (barcha staff bo'yicha)
+     * GET /api/appointments/next-available
+     */
+    @GetMapping("/next-available")
+    public ResponseEntity<ResponseDto<List<NextAvailableSlotResponse>>> getNextAvailableSlots(
+            @PathVariable UUID tenantId,
+            @RequestParam UUID serviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<NextAvailableSlotResponse> slots =
+                appointmentService.findNextAvailableSlots(tenantId, serviceId, from, to, limit);
+        return ResponseDto.ok(slots).toResponseEntity();
+    }
+
     /**
      * Vaqt bo'shligini tekshirish
      * GET /api/appointments/check-availability
@@ -293,6 +331,20 @@ public class AppointmentController {
         return ResponseDto.ok(appointmentPage).toResponseEntity();
     }
 
+    /**
+     * Keyset pagination bilan appointmentlar — keyingi sahifa uchun javobdagi nextCursor yuboriladi
+     * GET /api/{tenantId}/appointments/scroll
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<ResponseDto<CursorPage<AppointmentResponse>>> scrollAppointments(
+            @PathVariable UUID tenantId,
+            @RequestParam(defaultValue = "false") Boolean activeOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AppointmentResponse> page = appointmentService.scrollAppointments(tenantId, activeOnly, cursor, size);
+        return ResponseDto.ok(page).toResponseEntity();
+    }
+
     /**
      * Sana oralig'i bo'yicha appointmentlar
      * GET /api/appointments/date-range/{tenantId}
@@ -305,6 +357,31 @@ public class AppointmentController {
         List<AppointmentResponse> appointments = appointmentService.getAppointmentsByDateRange(tenantId, startDate, endDate);
         return ResponseDto.ok(appointments).toResponseEntity();
     }
+
+    /**
+     * Sana oralig'idagi appointmentlarni CSV yoki NDJSON fayl sifatida oqim bilan eksport qilish
+     * GET /api/appointments/export?startDate=...&endDate=...&format=csv|ndjson
+     */
+    @GetMapping("/export")
+    public void exportAppointments(
+            @PathVariable UUID tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        AppointmentExportFormat exportFormat = AppointmentExportFormat.from(format);
+        appointmentService.exportAppointments(tenantId, startDate, endDate, exportFormat, () -> {
+            response.setContentType(exportFormat.contentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments-"
+                    + startDate + "_" + endDate + "." + exportFormat.extension() + "\"");
+            try {
+                return response.getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
     @GetMapping("/get-staff-appointments/{staffId}")
     public ResponseEntity<ResponseDto<List<AppointmentResponse>>> getAppointments(
             @PathVariable UUID tenantId,
@@ -317,6 +394,22 @@ public class AppointmentController {
                 tenantId,staffId,status, pageable);
         return ResponseDto.ok(appointments).toResponseEntity();
     }
+
+    /**
+     * Staff appointmentlari keyset pagination bilan
+     * GET /api/{tenantId}/appointments/get-staff-appointments/{staffId}/scroll
+     */
+    @GetMapping("/get-staff-appointments/{staffId}/scroll")
+    public ResponseEntity<ResponseDto<CursorPage<AppointmentResponse>>> scrollStaffAppointments(
+            @PathVariable UUID tenantId,
+            @PathVariable UUID staffId,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AppointmentResponse> page = appointmentService.scrollStaffAppointments(
+                tenantId, staffId, status, cursor, size);
+        return ResponseDto.ok(page).toResponseEntity();
+    }
     /**
      * Staff bo'yicha sana oralig'ida appointmentlar
      * GET /api/appointments/staff-date-range/{staffId}
@@ -360,6 +453,17 @@ public class AppointmentController {
         return ResponseDto.ok(statistics).toResponseEntity();
     }
 
+    /**
+     * Barcha staff lar statistikasi
+     * GET /api/appointments/statistics/staff
+     */
+    @GetMapping("/statistics/staff")
+    public ResponseEntity<ResponseDto<List<StaffAppointmentStatisticsResponse>>> getStaffStatisticsByTenant(
+            @PathVariable UUID tenantId) {
+        List<StaffAppointmentStatisticsResponse> statistics = appointmentService.getStaffStatisticsByTenant(tenantId);
+        return ResponseDto.ok(statistics).toResponseEntity();
+    }
+
     /**
      * Staff statistikasi
      * GET /api/appointments/statistics/staff/{staffId}
@@ -4,8 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.dto.*;
 import org.architect.multitenantappointmentsystem.dto.request.LoginRequest;
 import org.architect.multitenantappointmentsystem.dto.request.RegisterRequest;
-import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AuthResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.MyAppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserMeResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserResponse;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
@@ -13,8 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -36,10 +35,15 @@ public class AuthController {
         return service.getMe().toResponseEntity();
     }
 
+    /**
+     * Joriy foydalanuvchi bronlari — keyingi sahifa uchun javobdagi nextCursor yuboriladi
+     */
     @GetMapping("/me/appointments")
-    public ResponseEntity<ResponseDto<List<AppointmentResponse>>> myAppointments(
-            @RequestParam(defaultValue = "upcoming") String type) {
-        return service.getMyAppointments(type).toResponseEntity();
+    public ResponseEntity<ResponseDto<CursorPage<MyAppointmentResponse>>> myAppointments(
+            @RequestParam(defaultValue = "upcoming") String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.getMyAppointments(type, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/find-by-email")
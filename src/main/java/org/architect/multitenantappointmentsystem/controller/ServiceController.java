@@ -14,6 +14,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -128,7 +129,12 @@ public class ServiceController {
     public ResponseEntity<ResponseDto<List<ServiceResponse>>> getServicesByTenant(
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "false") Boolean activeOnly,
-            @RequestParam(defaultValue = "false") Boolean ordered) {
+            @RequestParam(defaultValue = "false") Boolean ordered,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(catalogETag(tenantId))) {
+            return null;
+        }
 
         List<ServiceResponse> services = ordered
                 ? serviceService.getServicesByTenantOrdered(tenantId, activeOnly)
@@ -164,9 +170,12 @@ public class ServiceController {
     public ResponseEntity<ResponseDto<List<ServiceResponse>>> searchServices(
             @PathVariable UUID tenantId,
             @RequestParam String keyword,
-            @RequestParam(defaultValue = "true") Boolean activeOnly) {
+            @RequestParam(defaultValue = "true") Boolean activeOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<ServiceResponse> services = serviceService.searchServices(tenantId, keyword, activeOnly);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ServiceResponse> services = serviceService.searchServices(tenantId, keyword, activeOnly, pageable);
         return ResponseDto.ok(services).toResponseEntity();
     }
 
@@ -206,7 +215,12 @@ public class ServiceController {
     @GetMapping("/by-staff/{staffId}")
     public ResponseEntity<ResponseDto<List<ServiceResponse>>> getServicesByStaff(
             @PathVariable UUID tenantId,
-            @PathVariable UUID staffId) {
+            @PathVariable UUID staffId,
+            WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(catalogETag(tenantId))) {
+            return null;
+        }
 
         List<ServiceResponse> services = serviceService.getServicesByStaff(tenantId, staffId);
         return ResponseDto.ok(services).toResponseEntity();
@@ -323,4 +337,11 @@ public class ServiceController {
         ServiceStatisticsResponse statistics = serviceService.getServiceStatistics(tenantId);
         return ResponseDto.ok(statistics).toResponseEntity();
     }
-}
\ No newline at end of file
+
+    /**
+     * Katalog versiyasi ETag sifatida — If-None-Match mos kelsa 304 qaytadi
+     */
+    private String catalogETag(UUID tenantId) {
+        return "\"catalog-" + serviceService.getCatalogVersion(tenantId) + "\"";
+    }
+}
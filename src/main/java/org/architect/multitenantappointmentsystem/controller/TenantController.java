@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.dto.request.CreateTenantRequest;
 import org.architect.multitenantappointmentsystem.dto.ResponseDto;
 import org.architect.multitenantappointmentsystem.dto.response.TenantResponse;
+import org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse;
 import org.architect.multitenantappointmentsystem.dto.request.UpdateTenantRequest;
 import org.architect.multitenantappointmentsystem.service.interfaces.TenantService;
 import org.springframework.data.domain.Page;
@@ -53,23 +54,23 @@ public class TenantController {
     }
 
     @GetMapping("/get-all")
-    public ResponseEntity<ResponseDto<List<TenantResponse>>> getAllTenants(
+    public ResponseEntity<ResponseDto<List<TenantSummeryResponse>>> getAllTenants(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TenantResponse> res = service.getAllTenants(pageable);
+        Page<TenantSummeryResponse> res = service.getAllTenants(pageable);
         return ResponseDto.ok(res).toResponseEntity();
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ResponseDto<List<TenantResponse>>> searchTenants(
+    public ResponseEntity<ResponseDto<List<TenantSummeryResponse>>> searchTenants(
             @RequestParam(defaultValue = "") String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TenantResponse> res = service.searchTenants(q, pageable);
+        Page<TenantSummeryResponse> res = service.searchTenants(q, pageable);
 
         return ResponseDto.ok(res).toResponseEntity();
     }
@@ -46,11 +46,22 @@ public record AppointmentResponse(
         if (appointment == null) {
             return null;
         }
-        
+        return fromEntity(appointment,
+                appointment.getTenant() != null ? appointment.getTenant().getOrganizationName() : null);
+    }
+
+    /**
+     * Tenant nomi allaqachon ma'lum bo'lsa (masalan, keshdan) — tenant proxy si yuklanmaydi
+     */
+    public static AppointmentResponse fromEntity(Appointment appointment, String tenantName) {
+        if (appointment == null) {
+            return null;
+        }
+
         return new AppointmentResponse(
                 appointment.getId(),
                 appointment.getTenant() != null ? appointment.getTenant().getId() : null,
-                appointment.getTenant() != null ? appointment.getTenant().getOrganizationName() : null,
+                tenantName,
                 appointment.getStaff() != null ? appointment.getStaff().getId() : null,
                 appointment.getStaff() != null ? appointment.getStaff().getDisplayName(): null,
                 appointment.getStaff() != null ? appointment.getStaff().getPosition() : null,
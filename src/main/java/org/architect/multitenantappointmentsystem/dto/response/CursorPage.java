@@ -0,0 +1,13 @@
+package org.architect.multitenantappointmentsystem.dto.response;
+
+import java.util.List;
+
+/**
+ * Keyset pagination sahifasi. nextCursor keyingi so'rovga "cursor" sifatida beriladi,
+ * oxirgi sahifada null. Umumiy son hisoblanmaydi (COUNT so'rovi yo'q).
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -0,0 +1,9 @@
+package org.architect.multitenantappointmentsystem.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DailyAvailableSlotsResponse(
+        LocalDate date,
+        List<AvailableSlotResponse> slots  // staff ishlamaydigan kun uchun bo'sh
+) {}
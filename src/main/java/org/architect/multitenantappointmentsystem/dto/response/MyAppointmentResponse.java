@@ -0,0 +1,54 @@
+package org.architect.multitenantappointmentsystem.dto.response;
+
+import org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record MyAppointmentResponse(
+        UUID id,
+        UUID tenantId,
+        String tenantName,
+        String tenantSlug,
+        UUID staffId,
+        String staffName,
+        UUID serviceId,
+        String serviceName,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        String status,
+        String statusDisplayName,
+        String statusIcon,
+        BigDecimal totalPrice,
+        String formattedPrice,
+        String cancelReason
+) {
+
+    private static final DecimalFormat PRICE_FORMATTER = new DecimalFormat("#,###.00");
+
+    public static MyAppointmentResponse from(CustomerAppointmentRow row) {
+        return new MyAppointmentResponse(
+                row.id(),
+                row.tenantId(),
+                row.tenantName(),
+                row.tenantSlug(),
+                row.staffId(),
+                row.staffName(),
+                row.serviceId(),
+                row.serviceName(),
+                row.appointmentDate(),
+                row.startTime(),
+                row.endTime(),
+                row.status() != null ? row.status().name() : null,
+                row.status() != null ? row.status().getDisplayName() : null,
+                row.status() != null ? row.status().getIcon() : null,
+                row.totalPrice(),
+                row.totalPrice() != null ? PRICE_FORMATTER.format(row.totalPrice()) : null,
+                row.cancelReason()
+        );
+    }
+}
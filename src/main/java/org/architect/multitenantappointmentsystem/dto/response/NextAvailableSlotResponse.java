@@ -0,0 +1,13 @@
+package org.architect.multitenantappointmentsystem.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record NextAvailableSlotResponse(
+        UUID staffId,
+        String staffName,
+        LocalDate date,
+        LocalTime time,
+        String displayTime  // "09:00" formatda
+) {}
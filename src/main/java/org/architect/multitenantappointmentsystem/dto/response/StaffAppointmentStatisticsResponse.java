@@ -0,0 +1,8 @@
+package org.architect.multitenantappointmentsystem.dto.response;
+
+import java.util.UUID;
+
+public record StaffAppointmentStatisticsResponse(
+        UUID staffId,
+        AppointmentStatisticsResponse statistics
+) {}
@@ -1,11 +1,36 @@
 package org.architect.multitenantappointmentsystem.dto.response;
 
+import org.architect.multitenantappointmentsystem.entity.BusinessType;
+import org.architect.multitenantappointmentsystem.entity.Tenant;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Tenantlar ro'yxati (landing sahifa kartalari) uchun yengil ko'rinish
+ */
 public record TenantSummeryResponse(
-        Long id,
-        String tenantKey,
+        UUID id,
         String slug,
-        String businessType,
+        BusinessType businessType,
         String organizationName,
-        Boolean isActive
+        String email,
+        String phone,
+        String address,
+        LocalTime workingHoursStart,
+        LocalTime workingHoursEnd
 ) {
+    public static TenantSummeryResponse from(Tenant tenant) {
+        return new TenantSummeryResponse(
+                tenant.getId(),
+                tenant.getSlug(),
+                tenant.getBusinessType(),
+                tenant.getOrganizationName(),
+                tenant.getEmail(),
+                tenant.getPhone(),
+                tenant.getAddress(),
+                tenant.getWorkingHoursStart(),
+                tenant.getWorkingHoursEnd()
+        );
+    }
 }
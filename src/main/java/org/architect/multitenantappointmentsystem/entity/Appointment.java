@@ -16,7 +16,9 @@ import java.time.LocalTime;
         indexes = {
                 @Index(name = "idx_tenant_date", columnList = "tenant_id, appointment_date"),
                 @Index(name = "idx_staff_date", columnList = "staff_id, appointment_date"),
-                @Index(name = "idx_status", columnList = "status")
+                @Index(name = "idx_status", columnList = "status"),
+                @Index(name = "idx_appointments_tenant_phone",
+                        columnList = "tenant_id, customer_phone_norm, appointment_date")
         })
 public class Appointment {
 
@@ -37,6 +39,9 @@ public class Appointment {
     private String customerName;
     @Column(nullable = false)
     private String customerPhone;
+    // E.164 ko'rinishi — qidiruv va indeks uchun (PhoneNumbers.normalize)
+    @Column(name = "customer_phone_norm", length = 20)
+    private String customerPhoneNorm;
     @Column(name = "customer_email")
     private String customerEmail;
     @Column(name = "appointment_date", nullable = false)
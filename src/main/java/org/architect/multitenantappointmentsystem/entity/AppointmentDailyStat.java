@@ -0,0 +1,26 @@
+package org.architect.multitenantappointmentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Kunlik rollup: (tenant, sana, staff, service, status) bo'yicha appointment soni va summasi.
+ * Faqat DailyStatsRecorder orqali yoziladi
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "appointment_daily_stats")
+public class AppointmentDailyStat {
+
+    @EmbeddedId
+    private AppointmentDailyStatId id;
+
+    @Column(name = "appointment_count", nullable = false)
+    private Long appointmentCount = 0L;
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
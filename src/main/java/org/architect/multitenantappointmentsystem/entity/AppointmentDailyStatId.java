@@ -0,0 +1,29 @@
+package org.architect.multitenantappointmentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class AppointmentDailyStatId implements Serializable {
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+    @Column(name = "staff_id", nullable = false)
+    private UUID staffId;
+    @Column(name = "service_id", nullable = false)
+    private UUID serviceId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AppointmentStatus status;
+}
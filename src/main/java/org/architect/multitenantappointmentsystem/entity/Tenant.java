@@ -61,6 +61,10 @@ public class Tenant {
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    // Faqat TenantRepository.incrementCatalogVersion orqali o'zgaradi
+    @Column(nullable = false, updatable = false)
+    private Long catalogVersion = 0L;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
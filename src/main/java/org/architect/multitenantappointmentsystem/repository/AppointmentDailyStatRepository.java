@@ -0,0 +1,96 @@
+package org.architect.multitenantappointmentsystem.repository;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentDailyStat;
+import org.architect.multitenantappointmentsystem.entity.AppointmentDailyStatId;
+import org.architect.multitenantappointmentsystem.repository.projection.DailyStatusCount;
+import org.architect.multitenantappointmentsystem.repository.projection.StatusTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AppointmentDailyStatRepository extends JpaRepository<AppointmentDailyStat, AppointmentDailyStatId> {
+
+    // ==================== INKREMENTAL YANGILASH ====================
+
+    // Bitta rollup qatoriga delta qo'shadi — qator bo'lmasa yaratadi (Postgres upsert)
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats " +
+            "(tenant_id, stat_date, staff_id, service_id, status, appointment_count, revenue) " +
+            "VALUES (:tenantId, :date, :staffId, :serviceId, :status, :countDelta, :revenueDelta) " +
+            "ON CONFLICT (tenant_id, stat_date, staff_id, service_id, status) DO UPDATE SET " +
+            "appointment_count = appointment_daily_stats.appointment_count + EXCLUDED.appointment_count, " +
+            "revenue = appointment_daily_stats.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int applyDelta(@Param("tenantId") UUID tenantId,
+                   @Param("date") LocalDate date,
+                   @Param("staffId") UUID staffId,
+                   @Param("serviceId") UUID serviceId,
+                   @Param("status") String status,
+                   @Param("countDelta") long countDelta,
+                   @Param("revenueDelta") BigDecimal revenueDelta);
+
+    // ==================== REBUILD ====================
+
+    // Yozuvchilar upsert da kutib turadi, o'qish bloklanmaydi
+    @Modifying
+    @Query(value = "LOCK TABLE appointment_daily_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM appointment_daily_stats WHERE tenant_id = :tenantId", nativeQuery = true)
+    int deleteByTenantId(@Param("tenantId") UUID tenantId);
+
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats " +
+            "(tenant_id, stat_date, staff_id, service_id, status, appointment_count, revenue) " +
+            "SELECT tenant_id, appointment_date, staff_id, service_id, status, COUNT(*), COALESCE(SUM(total_price), 0) " +
+            "FROM appointments WHERE tenant_id = :tenantId " +
+            "GROUP BY tenant_id, appointment_date, staff_id, service_id, status",
+            nativeQuery = true)
+    int rebuildForTenant(@Param("tenantId") UUID tenantId);
+
+    // ==================== O'QISH (dashboard) ====================
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StatusTotals(" +
+            "s.id.status, SUM(s.appointmentCount), SUM(s.revenue)) " +
+            "FROM AppointmentDailyStat s WHERE s.id.tenantId = :tenantId " +
+            "GROUP BY s.id.status")
+    List<StatusTotals> sumByStatusForTenant(@Param("tenantId") UUID tenantId);
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StatusTotals(" +
+            "s.id.status, SUM(s.appointmentCount), SUM(s.revenue)) " +
+            "FROM AppointmentDailyStat s WHERE s.id.tenantId = :tenantId " +
+            "AND s.id.statDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY s.id.status")
+    List<StatusTotals> sumByStatusForTenantInRange(@Param("tenantId") UUID tenantId,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COUNT(DISTINCT s.id.statDate) FROM AppointmentDailyStat s " +
+            "WHERE s.id.tenantId = :tenantId AND s.appointmentCount > 0")
+    long countDaysForTenant(@Param("tenantId") UUID tenantId);
+
+    @Query("SELECT COUNT(DISTINCT s.id.statDate) FROM AppointmentDailyStat s " +
+            "WHERE s.id.tenantId = :tenantId AND s.appointmentCount > 0 " +
+            "AND s.id.statDate BETWEEN :startDate AND :endDate")
+    long countDaysForTenantInRange(@Param("tenantId") UUID tenantId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.DailyStatusCount(" +
+            "s.id.statDate, s.id.status, SUM(s.appointmentCount)) " +
+            "FROM AppointmentDailyStat s WHERE s.id.tenantId = :tenantId " +
+            "AND s.id.statDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY s.id.statDate, s.id.status")
+    List<DailyStatusCount> sumByDateAndStatus(@Param("tenantId") UUID tenantId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+}
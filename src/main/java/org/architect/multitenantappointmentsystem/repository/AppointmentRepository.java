@@ -1,23 +1,41 @@
 package org.architect.multitenantappointmentsystem.repository;
 import org.architect.multitenantappointmentsystem.entity.Appointment;
 import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.repository.projection.AppointmentExportRow;
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffBookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffStatusAggregate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, java.util.UUID> {
 
+    // Mijoz bronlari ro'yxati uchun umumiy SELECT — entity emas, projection
+    String CUSTOMER_ROW_SELECT =
+            "SELECT new org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow(" +
+            "a.id, t.id, t.organizationName, t.slug, s.id, s.displayName, e.id, e.name, " +
+            "a.appointmentDate, a.startTime, a.endTime, a.status, a.totalPrice, a.cancelReason) " +
+            "FROM Appointment a JOIN a.tenant t JOIN a.staff s JOIN a.employement e " +
+            "WHERE lower(a.customerEmail) = :email ";
+
     // ==================== DATE-BASED QUERIES ====================
 
     // ==================== DATE-BASED QUERIES ====================
@@ -122,6 +140,38 @@ public interface AppointmentRepository extends JpaRepository<Appointment, java.u
                             @Param("startTime") LocalTime startTime,
                             @Param("endTime") LocalTime endTime);
 
+    // Availability indeksi uchun — entity va join larsiz faqat vaqtlar
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.BookedInterval(" +
+            "a.id, a.startTime, a.endTime) FROM Appointment a " +
+            "WHERE a.staff.id = :staffId AND a.appointmentDate = :date " +
+            "AND a.status IN ('PENDING', 'CONFIRMED') " +
+            "ORDER BY a.startTime")
+    List<BookedInterval> findBookedIntervals(@Param("staffId") UUID staffId,
+                                             @Param("date") LocalDate date);
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffBookedInterval(" +
+            "a.staff.id, a.appointmentDate, a.id, a.startTime, a.endTime) FROM Appointment a " +
+            "WHERE a.staff.id IN :staffIds AND a.appointmentDate BETWEEN :from AND :to " +
+            "AND a.status IN ('PENDING', 'CONFIRMED') ORDER BY a.appointmentDate, a.startTime")
+    List<StaffBookedInterval> findBookedIntervalsInRange(@Param("staffIds") Collection<UUID> staffIds,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+
+    // ==================== EXPORT ====================
+
+    // Forward-only kursor: qatorlar fetch_size bo'lib o'qiladi, natija ro'yxatga yig'ilmaydi.
+    // Faqat tranzaksiya ichida va try-with-resources bilan ishlatiladi
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.AppointmentExportRow(" +
+            "a.id, a.appointmentDate, a.startTime, a.endTime, a.status, s.displayName, e.name, " +
+            "a.customerName, a.customerPhone, a.customerEmail, a.totalPrice) " +
+            "FROM Appointment a JOIN a.staff s JOIN a.employement e " +
+            "WHERE a.tenant.id = :tenantId AND a.appointmentDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY a.appointmentDate, a.startTime, a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AppointmentExportRow> streamExportRows(@Param("tenantId") UUID tenantId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
     // ==================== PAGINATION ====================
 
     Page<Appointment> findByTenantId(UUID tenantId, Pageable pageable);
@@ -182,9 +232,11 @@ public interface AppointmentRepository extends JpaRepository<Appointment, java.u
             "ORDER BY a.appointmentDate DESC, a.startTime DESC")
     List<Appointment> findPastAppointmentsByPhone(@Param("phone") String customerPhone, Pageable pageable);
 
-    @Query("SELECT a FROM Appointment a WHERE a.customerPhone = :phone " +
-            "AND a.appointmentDate < CURRENT_DATE AND a.tenant.id = :tenantId " +
+    // phone — normalizatsiya qilingan (E.164), idx_appointments_tenant_phone bo'yicha
+    @Query("SELECT a FROM Appointment a WHERE a.tenant.id = :tenantId AND a.customerPhoneNorm = :phone " +
+            "AND a.appointmentDate < CURRENT_DATE " +
             "ORDER BY a.appointmentDate DESC, a.startTime DESC")
+    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
     List<Appointment> findPastAppointmentsByPhoneAndTenantId(@Param("phone") String customerPhone,
                                                              @Param("tenantId") UUID tenantId,
                                                              Pageable pageable);
@@ -197,10 +249,11 @@ public interface AppointmentRepository extends JpaRepository<Appointment, java.u
 
     @EntityGraph(attributePaths = {"staff", "tenant", "employement",
             "staff.user"})
-    List<Appointment> findByCustomerPhoneAndTenantId(String customerPhone, UUID tenantId);
+    List<Appointment> findByTenantIdAndCustomerPhoneNormOrderByAppointmentDateDescStartTimeDesc(
+            UUID tenantId, String customerPhoneNorm);
 
-    @Query("SELECT a FROM Appointment a WHERE a.customerPhone = :phone " +
-            "AND a.appointmentDate >= :date AND a.tenant.id = :tenantId " +
+    @Query("SELECT a FROM Appointment a WHERE a.tenant.id = :tenantId AND a.customerPhoneNorm = :phone " +
+            "AND a.appointmentDate >= :date " +
             "ORDER BY a.appointmentDate, a.startTime")
     @EntityGraph(attributePaths = {"staff", "tenant", "employement",
             "staff.user"})
@@ -209,21 +262,68 @@ public interface AppointmentRepository extends JpaRepository<Appointment, java.u
                                                                  @Param("tenantId") UUID tenantId);
 
     // ==================== USER EMAIL QUERIES ====================
+    // email kichik harfda beriladi — lower(customer_email) indeksi bilan mos (V11).
+    // Keyset: (appointment_date, start_time, id); upcoming o'sish, past kamayish tartibida.
 
-    @Query("SELECT a FROM Appointment a WHERE a.customerEmail = :email " +
-            "AND a.appointmentDate >= :date " +
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate >= :today " +
             "AND a.status IN ('PENDING', 'CONFIRMED') " +
-            "ORDER BY a.appointmentDate, a.startTime")
-    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
-    List<Appointment> findUpcomingAppointmentsByEmail(@Param("email") String email,
-                                                      @Param("date") LocalDate date);
+            "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<CustomerAppointmentRow> findUpcomingByEmail(@Param("email") String email,
+                                                     @Param("today") LocalDate today,
+                                                     Pageable limit);
 
-    @Query("SELECT a FROM Appointment a WHERE a.customerEmail = :email " +
-            "AND (a.appointmentDate < CURRENT_DATE " +
-            "     OR a.status IN ('CANCELLED', 'COMPLETED', 'NO_SHOW')) " +
-            "ORDER BY a.appointmentDate DESC, a.startTime DESC")
-    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
-    List<Appointment> findPastAppointmentsByEmail(@Param("email") String email);
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate >= :today " +
+            "AND a.status IN ('PENDING', 'CONFIRMED') " +
+            "AND (a.appointmentDate, a.startTime, a.id) > (:date, :startTime, :id) " +
+            "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<CustomerAppointmentRow> findUpcomingByEmailAfter(@Param("email") String email,
+                                                          @Param("today") LocalDate today,
+                                                          @Param("date") LocalDate date,
+                                                          @Param("startTime") LocalTime startTime,
+                                                          @Param("id") UUID id,
+                                                          Pageable limit);
+
+    // Past — 1-tarmoq: bugun va keyingi kunlardagi yopilgan (bekor/yakunlangan/kelmagan) bronlar
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate >= :today " +
+            "AND a.status IN ('CANCELLED', 'COMPLETED', 'NO_SHOW') " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    List<CustomerAppointmentRow> findClosedByEmailFrom(@Param("email") String email,
+                                                       @Param("today") LocalDate today,
+                                                       Pageable limit);
+
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate >= :today " +
+            "AND a.status IN ('CANCELLED', 'COMPLETED', 'NO_SHOW') " +
+            "AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    List<CustomerAppointmentRow> findClosedByEmailFromAfter(@Param("email") String email,
+                                                            @Param("today") LocalDate today,
+                                                            @Param("date") LocalDate date,
+                                                            @Param("startTime") LocalTime startTime,
+                                                            @Param("id") UUID id,
+                                                            Pageable limit);
+
+    // Past — 2-tarmoq: o'tgan kunlardagi barcha bronlar (status filtri yo'q)
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate < :today " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    List<CustomerAppointmentRow> findPastByEmailBefore(@Param("email") String email,
+                                                       @Param("today") LocalDate today,
+                                                       Pageable limit);
+
+    @Query(CUSTOMER_ROW_SELECT +
+            "AND a.appointmentDate < :today " +
+            "AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    List<CustomerAppointmentRow> findPastByEmailBeforeAfter(@Param("email") String email,
+                                                            @Param("today") LocalDate today,
+                                                            @Param("date") LocalDate date,
+                                                            @Param("startTime") LocalTime startTime,
+                                                            @Param("id") UUID id,
+                                                            Pageable limit);
 
     @Query("SELECT a FROM Appointment a WHERE a.staff.id = :staffId AND a.tenant.id = :tenantId ORDER BY a.appointmentDate DESC, a.startTime DESC")
     Page<Appointment> findByStaffIdAndTenantId( @Param("tenantId") UUID tenantId,@Param("staffId") UUID staffId, Pageable pageable);
@@ -237,29 +337,67 @@ public interface AppointmentRepository extends JpaRepository<Appointment, java.u
             @Param("activeOnly") Boolean activeOnly,
             Pageable pageable);
 
-    // ========== AGGREGATE QUERIES (statistika uchun - xotiraga yuklamaydi) ==========
+    // ==================== KEYSET PAGINATION ====================
+    // (appointment_date, start_time, id) bo'yicha kamayish tartibida; COUNT so'rovi yo'q,
+    // keyingi sahifa oxirgi qatordan davom etadi — idx_appointments_*_seek indekslari qoplaydi
 
-    @Query("SELECT a.status, COUNT(a), COALESCE(SUM(a.totalPrice), 0) " +
-            "FROM Appointment a WHERE a.tenant.id = :tenantId " +
-            "GROUP BY a.status")
-    List<Object[]> countAndSumByStatusForTenant(@Param("tenantId") UUID tenantId);
+    @Query("SELECT a FROM Appointment a WHERE a.tenant.id = :tenantId " +
+            "AND (:activeOnly = false OR a.status IN ('PENDING', 'CONFIRMED')) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
+    List<Appointment> scrollByTenantId(@Param("tenantId") UUID tenantId,
+                                       @Param("activeOnly") boolean activeOnly,
+                                       Pageable limit);
 
-    @Query("SELECT a.status, COUNT(a), COALESCE(SUM(a.totalPrice), 0) " +
-            "FROM Appointment a WHERE a.tenant.id = :tenantId " +
-            "AND a.appointmentDate BETWEEN :startDate AND :endDate " +
-            "GROUP BY a.status")
-    List<Object[]> countAndSumByStatusForTenantInRange(
-            @Param("tenantId") UUID tenantId,
-            @Param("startDate") java.time.LocalDate startDate,
-            @Param("endDate") java.time.LocalDate endDate);
+    @Query("SELECT a FROM Appointment a WHERE a.tenant.id = :tenantId " +
+            "AND (:activeOnly = false OR a.status IN ('PENDING', 'CONFIRMED')) " +
+            "AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
+    List<Appointment> scrollByTenantIdAfter(@Param("tenantId") UUID tenantId,
+                                            @Param("activeOnly") boolean activeOnly,
+                                            @Param("date") LocalDate date,
+                                            @Param("startTime") LocalTime startTime,
+                                            @Param("id") UUID id,
+                                            Pageable limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.staff.id = :staffId AND a.tenant.id = :tenantId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
+    List<Appointment> scrollByStaffId(@Param("tenantId") UUID tenantId,
+                                      @Param("staffId") UUID staffId,
+                                      @Param("status") AppointmentStatus status,
+                                      Pageable limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.staff.id = :staffId AND a.tenant.id = :tenantId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id) " +
+            "ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"staff", "tenant", "employement"})
+    List<Appointment> scrollByStaffIdAfter(@Param("tenantId") UUID tenantId,
+                                           @Param("staffId") UUID staffId,
+                                           @Param("status") AppointmentStatus status,
+                                           @Param("date") LocalDate date,
+                                           @Param("startTime") LocalTime startTime,
+                                           @Param("id") UUID id,
+                                           Pageable limit);
 
-    @Query("SELECT COUNT(DISTINCT a.appointmentDate) FROM Appointment a WHERE a.tenant.id = :tenantId")
-    long countDistinctDaysForTenant(@Param("tenantId") UUID tenantId);
+    // ========== AGGREGATE QUERIES (statistika uchun - xotiraga yuklamaydi) ==========
 
-    @Query("SELECT COUNT(DISTINCT a.appointmentDate) FROM Appointment a WHERE a.tenant.id = :tenantId " +
-            "AND a.appointmentDate BETWEEN :startDate AND :endDate")
-    long countDistinctDaysForTenantInRange(
-            @Param("tenantId") UUID tenantId,
-            @Param("startDate") java.time.LocalDate startDate,
-            @Param("endDate") java.time.LocalDate endDate);
+    // Bitta staff: status bo'yicha count/sum + ish kunlari soni — bitta query
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffStatusAggregate(" +
+            "a.staff.id, a.status, COUNT(a), COALESCE(SUM(a.totalPrice), 0), " +
+            "(SELECT COUNT(DISTINCT d.appointmentDate) FROM Appointment d WHERE d.staff.id = a.staff.id)) " +
+            "FROM Appointment a WHERE a.staff.id = :staffId " +
+            "GROUP BY a.staff.id, a.status")
+    List<StaffStatusAggregate> aggregateByStatusForStaff(@Param("staffId") UUID staffId);
+
+    // Tenant ning barcha staff lari uchun bir yo'la — staff soniga qarab query ko'paymaydi
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffStatusAggregate(" +
+            "a.staff.id, a.status, COUNT(a), COALESCE(SUM(a.totalPrice), 0), " +
+            "(SELECT COUNT(DISTINCT d.appointmentDate) FROM Appointment d WHERE d.staff.id = a.staff.id)) " +
+            "FROM Appointment a WHERE a.tenant.id = :tenantId " +
+            "GROUP BY a.staff.id, a.status")
+    List<StaffStatusAggregate> aggregateByStaffAndStatusForTenant(@Param("tenantId") UUID tenantId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.architect.multitenantappointmentsystem.repository;
 
 import org.architect.multitenantappointmentsystem.entity.Employement;
+import org.architect.multitenantappointmentsystem.repository.projection.ServiceStatisticsAggregate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -34,15 +35,20 @@ public interface ServiceRepository extends JpaRepository<Employement, java.util.
 
     List<Employement> findActiveServicesByStaffId(UUID staffId);
 
-    @Query("SELECT s FROM Employement s WHERE s.tenant.id = :tenantId AND " +
-           "(LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Employement> searchByKeyword(@Param("tenantId") UUID tenantId, @Param("keyword") String keyword);
-
-    @Query("SELECT s FROM Employement s WHERE s.tenant.id = :tenantId AND s.isActive = true AND " +
-           "(LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Employement> searchActiveByKeyword(@Param("tenantId") UUID tenantId, @Param("keyword") String keyword);
+    // search_vector + idx_employements_search (V9). query — prefiks tsquery ("soch:* & ol:*"),
+    // DB da uz_search_normalize dan o'tadi. Tartib: ts_rank (nom tavsifdan og'irroq), keyin displayOrder
+    @Query(value = "SELECT s.* FROM employements s, to_tsquery('simple', uz_search_normalize(:query)) q " +
+            "WHERE s.tenant_id = :tenantId AND (:activeOnly = false OR s.is_active) " +
+            "AND s.search_vector @@ q " +
+            "ORDER BY ts_rank(s.search_vector, q) DESC, s.display_order NULLS LAST, s.name, s.id",
+            countQuery = "SELECT COUNT(*) FROM employements s, to_tsquery('simple', uz_search_normalize(:query)) q " +
+                    "WHERE s.tenant_id = :tenantId AND (:activeOnly = false OR s.is_active) " +
+                    "AND s.search_vector @@ q",
+            nativeQuery = true)
+    Page<Employement> searchServices(@Param("tenantId") UUID tenantId,
+                                     @Param("query") String query,
+                                     @Param("activeOnly") boolean activeOnly,
+                                     Pageable pageable);
 
     @Query(value = "SELECT s.* FROM employements s " +
            "INNER JOIN appointments a ON s.id = a.service_id " +
@@ -52,6 +58,15 @@ public interface ServiceRepository extends JpaRepository<Employement, java.util.
            "LIMIT :limit", nativeQuery = true)
     List<Employement> findPopularServices(@Param("tenantId") UUID tenantId, Pageable pageable);
 
+    // Statistika — service va appointment lar xotiraga yuklanmaydi, bitta query
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.ServiceStatisticsAggregate(" +
+            "COUNT(s), COUNT(CASE WHEN s.isActive = true THEN 1 END), " +
+            "SUM(s.price), MIN(s.price), MAX(s.price), " +
+            "SUM(s.duration), MIN(s.duration), MAX(s.duration), " +
+            "(SELECT COUNT(a) FROM Appointment a WHERE a.tenant.id = :tenantId)) " +
+            "FROM Employement s WHERE s.tenant.id = :tenantId")
+    ServiceStatisticsAggregate aggregateStatistics(@Param("tenantId") UUID tenantId);
+
     List<Employement> findByIdInAndTenantId(List<UUID> ids, UUID tenantId);
     Optional<Employement> findByIdAndTenantId(UUID id, UUID tenantId);
 }
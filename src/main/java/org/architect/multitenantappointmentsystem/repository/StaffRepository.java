@@ -2,6 +2,8 @@ package org.architect.multitenantappointmentsystem.repository;
 
 import org.architect.multitenantappointmentsystem.entity.Staff;
 import org.architect.multitenantappointmentsystem.entity.StaffRole;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffMembership;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffServiceLink;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -46,6 +48,10 @@ public interface StaffRepository extends JpaRepository<Staff, java.util.UUID> {
     Optional<Staff> findByUserIdAndTenantId(UUID userId, UUID tenantId);
 
     boolean existsByUserIdAndTenantId(UUID userId, UUID tenantId);
+    boolean existsByIdAndTenantId(UUID id, UUID tenantId);
+
+    @Query("SELECT s.id FROM Staff s WHERE s.tenant.id = :tenantId")
+    List<UUID> findIdsByTenantId(@Param("tenantId") UUID tenantId);
 
     // Employement-related queries
     @Query("SELECT s FROM Staff s JOIN s.employements srv WHERE srv.id = :serviceId AND s.isActive = true")
@@ -68,7 +74,18 @@ public interface StaffRepository extends JpaRepository<Staff, java.util.UUID> {
 
     List<Staff> findByUserId(UUID id);
 
-    @EntityGraph(attributePaths = {"user", "tenant", "employements"})
-    Optional<Staff> findByTenantIdAndUserId(UUID tenantId, UUID userId);
-
-}
\ No newline at end of file
+    // JWT principal uchun — Staff/Tenant entity larini yuklamaydi
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffMembership(" +
+            "s.id, s.tenant.id, s.role, s.isActive) FROM Staff s WHERE s.user.id = :userId")
+    List<StaffMembership> findMembershipsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffMembership(" +
+            "s.id, s.tenant.id, s.role, s.isActive) FROM Staff s " +
+            "WHERE s.tenant.id = :tenantId AND s.user.id = :userId")
+    Optional<StaffMembership> findMembershipByTenantIdAndUserId(@Param("tenantId") UUID tenantId,
+                                                                @Param("userId") UUID userId);
+
+    @Query("SELECT new org.architect.multitenantappointmentsystem.repository.projection.StaffServiceLink(s.id, e.id) " +
+           "FROM Staff s LEFT JOIN s.employements e WHERE s.tenant.id = :tenantId")
+    List<StaffServiceLink> findServiceLinksByTenantId(@Param("tenantId") UUID tenantId);
+}
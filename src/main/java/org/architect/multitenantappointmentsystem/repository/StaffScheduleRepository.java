@@ -1,6 +1,7 @@
 package org.architect.multitenantappointmentsystem.repository;
 
 import org.architect.multitenantappointmentsystem.entity.StaffSchedule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +23,9 @@ public interface StaffScheduleRepository extends JpaRepository<StaffSchedule, ja
 
     List<StaffSchedule> findByStaffIdAndIsAvailable(UUID staffId, Boolean isAvailable);
 
+    @EntityGraph(attributePaths = "staff")
+    List<StaffSchedule> findWithStaffByStaffIdIn(Collection<UUID> staffIds);
+
     // Tenant-related queries
     @Query("SELECT ss FROM StaffSchedule ss WHERE ss.staff.tenant.id = :tenantId")
     List<StaffSchedule> findByTenantId(@Param("tenantId") UUID tenantId);
@@ -1,13 +1,17 @@
 package org.architect.multitenantappointmentsystem.repository;
 
+import org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse;
 import org.architect.multitenantappointmentsystem.entity.Tenant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,9 +20,31 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     Optional<Tenant> findBySlug(String slug);
     boolean existsBySlug(String slug);
 
-    @Query("SELECT t FROM Tenant t WHERE t.isActive = true AND " +
-           "(LOWER(t.organizationName) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           " LOWER(t.address) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           " LOWER(CAST(t.businessType AS string)) LIKE LOWER(CONCAT('%', :q, '%')))")
-    Page<Tenant> searchActiveTenants(@Param("q") String q, Pageable pageable);
+    // idx_tenants_active_name (V8) bo'yicha — faqat kartaga kerakli ustunlar, entity yuklanmaydi
+    @Query(value = "SELECT new org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse(" +
+            "t.id, t.slug, t.businessType, t.organizationName, t.email, t.phone, t.address, " +
+            "t.workingHoursStart, t.workingHoursEnd) " +
+            "FROM Tenant t WHERE t.isActive = true ORDER BY t.organizationName, t.id",
+            countQuery = "SELECT COUNT(t) FROM Tenant t WHERE t.isActive = true")
+    Page<TenantSummeryResponse> findActiveSummaries(Pageable pageable);
+
+    // search_text + idx_tenants_search_trgm (V7): LIKE '%q%' trigram GIN indeksi orqali bajariladi.
+    // Tartib — nomga o'xshashlik bo'yicha (aniq/yaqin nomlar birinchi), keyin nom bo'yicha
+    @Query(value = "SELECT t.* FROM tenants t " +
+            "WHERE t.is_active AND t.search_text LIKE :pattern " +
+            "ORDER BY similarity(lower(t.organization_name), :q) DESC, t.organization_name, t.id",
+            countQuery = "SELECT COUNT(*) FROM tenants t WHERE t.is_active AND t.search_text LIKE :pattern",
+            nativeQuery = true)
+    Page<Tenant> searchActiveTenants(@Param("q") String q, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT t.id FROM Tenant t")
+    List<UUID> findAllIds();
+
+    @Query("SELECT t.catalogVersion FROM Tenant t WHERE t.id = :tenantId")
+    Optional<Long> findCatalogVersion(@Param("tenantId") UUID tenantId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Tenant t SET t.catalogVersion = t.catalogVersion + 1 WHERE t.id = :tenantId")
+    int incrementCatalogVersion(@Param("tenantId") UUID tenantId);
 }
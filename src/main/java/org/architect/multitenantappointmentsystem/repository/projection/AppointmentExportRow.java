@@ -0,0 +1,25 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Eksport uchun bitta appointment qatori — entity emas, persistence context da saqlanmaydi
+ */
+public record AppointmentExportRow(
+        UUID id,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        AppointmentStatus status,
+        String staffName,
+        String serviceName,
+        String customerName,
+        String customerPhone,
+        String customerEmail,
+        BigDecimal totalPrice
+) {}
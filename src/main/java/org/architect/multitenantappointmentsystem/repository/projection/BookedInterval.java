@@ -0,0 +1,13 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Band qilingan vaqt oralig'i — availability uchun faqat kerakli ustunlar
+ */
+public record BookedInterval(
+        UUID appointmentId,
+        LocalTime startTime,
+        LocalTime endTime
+) {}
@@ -0,0 +1,28 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Mijozning "mening bronlarim" ro'yxati uchun qator — tenant/staff/service nomlari JOIN dan olinadi
+ */
+public record CustomerAppointmentRow(
+        UUID id,
+        UUID tenantId,
+        String tenantName,
+        String tenantSlug,
+        UUID staffId,
+        String staffName,
+        UUID serviceId,
+        String serviceName,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        AppointmentStatus status,
+        BigDecimal totalPrice,
+        String cancelReason
+) {}
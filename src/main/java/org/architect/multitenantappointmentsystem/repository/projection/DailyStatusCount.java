@@ -0,0 +1,10 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Bitta kun va status bo'yicha appointmentlar soni (calendar uchun)
+ */
+public record DailyStatusCount(LocalDate date, AppointmentStatus status, Long count) {}
@@ -0,0 +1,18 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Tenant service lari bo'yicha bitta aggregate qator. Service bo'lmasa SUM/MIN/MAX null keladi
+ */
+public record ServiceStatisticsAggregate(
+        Long totalServices,
+        Long activeServices,
+        BigDecimal totalPrice,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Long totalDuration,
+        Integer minDuration,
+        Integer maxDuration,
+        Long totalAppointments
+) {}
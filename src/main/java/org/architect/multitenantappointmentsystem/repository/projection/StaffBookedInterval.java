@@ -0,0 +1,20 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Bir nechta staff / kun oralig'i uchun band vaqt — bitta range query natijasi
+ */
+public record StaffBookedInterval(
+        UUID staffId,
+        LocalDate date,
+        UUID appointmentId,
+        LocalTime startTime,
+        LocalTime endTime
+) {
+    public BookedInterval toBookedInterval() {
+        return new BookedInterval(appointmentId, startTime, endTime);
+    }
+}
@@ -0,0 +1,15 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.StaffRole;
+
+import java.util.UUID;
+
+/**
+ * User ning tenantlardagi staff a'zoligi — principal qurish uchun yengil projection
+ */
+public record StaffMembership(
+        UUID staffId,
+        UUID tenantId,
+        StaffRole role,
+        Boolean isActive
+) {}
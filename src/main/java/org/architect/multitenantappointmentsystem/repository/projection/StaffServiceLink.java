@@ -0,0 +1,11 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * staff_services bog'lanishi. Servicesi yo'q staff uchun serviceId null bo'ladi.
+ */
+public record StaffServiceLink(
+        UUID staffId,
+        UUID serviceId
+) {}
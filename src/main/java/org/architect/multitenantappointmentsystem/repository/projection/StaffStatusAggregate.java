@@ -0,0 +1,22 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * (staff, status) bo'yicha aggregate qator: soni, summasi va staff ning jami ish kunlari soni
+ * (distinctDays shu staff ning barcha qatorlarida bir xil)
+ */
+public record StaffStatusAggregate(
+        UUID staffId,
+        AppointmentStatus status,
+        Long count,
+        BigDecimal revenue,
+        Long distinctDays
+) {
+    public StatusTotals totals() {
+        return new StatusTotals(status, count, revenue);
+    }
+}
@@ -0,0 +1,10 @@
+package org.architect.multitenantappointmentsystem.repository.projection;
+
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Status bo'yicha jami: appointmentlar soni va summasi (statistika uchun)
+ */
+public record StatusTotals(AppointmentStatus status, Long count, BigDecimal revenue) {}
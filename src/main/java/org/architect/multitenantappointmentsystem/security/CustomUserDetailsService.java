@@ -6,6 +6,7 @@ import org.architect.multitenantappointmentsystem.entity.User;
 import org.architect.multitenantappointmentsystem.entity.UserStatus;
 import org.architect.multitenantappointmentsystem.repository.StaffRepository;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffMembership;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +26,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final StaffRepository staffRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -78,19 +80,27 @@ public class CustomUserDetailsService implements UserDetailsService {
         );
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * JWT filtri uchun principal — PrincipalCache dan olinadi, keshda bo'lmasa
+     * yengil projection bilan quriladi (Staff/Tenant entity lari yuklanmaydi)
+     */
     public UserDetails loadUserByIdForJwt(UUID userId, String email) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User topilmadi: " + userId));
+        return principalCache.get(userId, id -> buildJwtPrincipal(id, email));
+    }
 
-        List<Staff> staffRoles = staffRepository.findByUserId(user.getId());
+    private AuthUser buildJwtPrincipal(UUID userId, String email) {
+        if (!userRepository.existsById(userId)) {
+            throw new UsernameNotFoundException("User topilmadi: " + userId);
+        }
 
-        if (staffRoles.isEmpty()) {
+        List<StaffMembership> memberships = staffRepository.findMembershipsByUserId(userId);
+
+        if (memberships.isEmpty()) {
             Collection<GrantedAuthority> authorities = Collections.singletonList(
                     new SimpleGrantedAuthority("ROLE_USER")
             );
             return AuthUser.createWithoutPassword(
-                    user.getId(),
+                    userId,
                     email,
                     List.of(),
                     List.of(),
@@ -99,17 +109,17 @@ public class CustomUserDetailsService implements UserDetailsService {
             );
         }
 
-        List<UUID> tenantIds = staffRoles.stream()
-                .map(staff -> staff.getTenant().getId())
+        List<UUID> tenantIds = memberships.stream()
+                .map(StaffMembership::tenantId)
                 .distinct()
                 .toList();
 
-        List<UUID> staffIds = staffRoles.stream()
-                .map(Staff::getId)
+        List<UUID> staffIds = memberships.stream()
+                .map(StaffMembership::staffId)
                 .toList();
 
-        List<String> roles = staffRoles.stream()
-                .map(staff -> staff.getRole().name())
+        List<String> roles = memberships.stream()
+                .map(membership -> membership.role().name())
                 .distinct()
                 .toList();
 
@@ -118,7 +128,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .toList();
 
         return AuthUser.createWithoutPassword(
-                user.getId(),
+                userId,
                 email,
                 tenantIds,
                 staffIds,
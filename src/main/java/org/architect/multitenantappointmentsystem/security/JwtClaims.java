@@ -0,0 +1,13 @@
+package org.architect.multitenantappointmentsystem.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Imzosi tekshirilgan token ma'lumotlari
+ */
+public record JwtClaims(
+        UUID userId,
+        String email,
+        Instant expiresAt
+) {}
@@ -15,6 +15,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -30,11 +32,10 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt= getJwtFromRequest(request);
-            if (StringUtils.hasText(jwt)&& service.validateToken(jwt)){
-                String email = service.getEmailFromToken(jwt);
-                java.util.UUID userId = service.getUserIdFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByIdForJwt(userId, email);
+            Optional<JwtClaims> claims = StringUtils.hasText(jwt) ? service.verify(jwt) : Optional.empty();
+            if (claims.isPresent()){
+                UserDetails userDetails = userDetailsService.loadUserByIdForJwt(
+                        claims.get().userId(), claims.get().email());
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
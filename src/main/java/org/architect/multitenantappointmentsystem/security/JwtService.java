@@ -1,20 +1,35 @@
 package org.architect.multitenantappointmentsystem.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import jakarta.validation.Valid;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtService {
+    // Bir vaqtda faol bo'lgan tokenlar soni uchun yetarli chegara
+    private static final long MAX_CACHED_TOKENS = 100_000;
+
     private final UserRepository repository;
     @Value("${jwt.secret}")
     private String secretKey;
@@ -23,10 +38,38 @@ public class JwtService {
     @Value("${jwt.refresh-token}")
     private long refreshTokenExp;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Token digest -> tekshirilgan claims. Har bir yozuv token muddati tugaganda o'chadi
+    private final Cache<String, JwtClaims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new Expiry<String, JwtClaims>() {
+                @Override
+                public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
+
     public String generateToken(String email, java.util.UUID userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
@@ -36,36 +79,60 @@ public class JwtService {
                 .claim("userId", userId)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
+
+    /**
+     * Tokenni bir marta tekshiradi va claims ni qaytaradi.
+     * Takroriy so'rovlarda imzo qayta tekshirilmaydi — natija token muddati tugaguncha keshda turadi.
+     */
+    public Optional<JwtClaims> verify(String token) {
+        String digest = digest(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims payload = parser.parseSignedClaims(token).getPayload();
+            String userId = payload.get("userId", String.class);
+            if (userId == null || payload.getExpiration() == null) {
+                return Optional.empty();
+            }
+            JwtClaims claims = new JwtClaims(
+                    java.util.UUID.fromString(userId),
+                    payload.getSubject(),
+                    payload.getExpiration().toInstant());
+            verifiedTokens.put(digest, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return verify(token)
+                .map(JwtClaims::email)
+                .orElseThrow(() -> new JwtException("Token yaroqsiz"));
     }
+
     public java.util.UUID getUserIdFromToken(String token) {
-        String userIdStr = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("userId", String.class);
-        return java.util.UUID.fromString(userIdStr);
+        return verify(token)
+                .map(JwtClaims::userId)
+                .orElseThrow(() -> new JwtException("Token yaroqsiz"));
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
@@ -0,0 +1,57 @@
+package org.architect.multitenantappointmentsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.TransactionCallbacks;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * userId -> AuthUser keshi. Har bir autentifikatsiyalangan so'rovda
+ * users + staff jadvallariga borilmasligi uchun.
+ * Staff a'zoligi o'zgarganda evict() chaqiriladi; TTL boshqa yo'llar bilan
+ * bo'lgan o'zgarishlar uchun eng yuqori kechikishni cheklaydi.
+ * Boshqa node lar CacheInvalidationBus orqali xabardor qilinadi.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private static final long MAX_PRINCIPALS = 50_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<UUID, AuthUser> principals = Caffeine.newBuilder()
+            .maximumSize(MAX_PRINCIPALS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheRegion.PRINCIPAL, principals::invalidate, principals::invalidateAll);
+    }
+
+    public AuthUser get(UUID userId, Function<UUID, AuthUser> loader) {
+        return principals.get(userId, loader);
+    }
+
+    /**
+     * Commit dan keyin o'chiradi — aks holda parallel so'rov eski holatni qayta keshlab qo'yishi mumkin
+     */
+    public void evict(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        principals.invalidate(userId);
+        TransactionCallbacks.afterCommit(() -> principals.invalidate(userId));
+        invalidationBus.publish(CacheRegion.PRINCIPAL, userId);
+    }
+}
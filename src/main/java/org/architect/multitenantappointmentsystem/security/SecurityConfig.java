@@ -43,6 +43,8 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/*/staff/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/*/services/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/*/appointments/available-slots").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/*/appointments/available-slots/range").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/*/appointments/next-available").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/*/appointments").authenticated()
                         .requestMatchers("/",
                                 "/error",
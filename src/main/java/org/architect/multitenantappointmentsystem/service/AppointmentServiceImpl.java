@@ -1,6 +1,7 @@
 package org.architect.multitenantappointmentsystem.service;
 
 import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.PhoneNumbers;
 import org.architect.multitenantappointmentsystem.dto.request.CancelAppointmentRequest;
 import org.architect.multitenantappointmentsystem.dto.request.CreateAppointmentRequest;
 import org.architect.multitenantappointmentsystem.dto.request.RescheduleAppointmentRequest;
@@ -9,24 +10,60 @@ import org.architect.multitenantappointmentsystem.dto.response.AppointmentCalend
 import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AppointmentStatisticsResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.DailyAvailableSlotsResponse;
+import org.architect.multitenantappointmentsystem.dto.response.NextAvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.StaffAppointmentStatisticsResponse;
 import org.architect.multitenantappointmentsystem.entity.*;
 import org.architect.multitenantappointmentsystem.exception.*;
 import org.architect.multitenantappointmentsystem.repository.*;
+import org.architect.multitenantappointmentsystem.repository.projection.AppointmentExportRow;
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.DailyStatusCount;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffBookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffStatusAggregate;
+import org.architect.multitenantappointmentsystem.repository.projection.StatusTotals;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
+import org.architect.multitenantappointmentsystem.service.availability.BookingCoordinator;
+import org.architect.multitenantappointmentsystem.service.availability.BookingIntervalIndex;
+import org.architect.multitenantappointmentsystem.service.availability.DayIntervals;
+import org.architect.multitenantappointmentsystem.service.availability.SlotTables;
+import org.architect.multitenantappointmentsystem.service.export.AppointmentExportFormat;
+import org.architect.multitenantappointmentsystem.service.export.AppointmentExportWriter;
 import org.architect.multitenantappointmentsystem.service.interfaces.AppointmentService;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
+import org.architect.multitenantappointmentsystem.service.pagination.AppointmentCursor;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalogCache;
+import org.architect.multitenantappointmentsystem.service.schedule.StaffScheduleCache;
+import org.architect.multitenantappointmentsystem.service.stats.DailyStatsRecorder;
+import org.architect.multitenantappointmentsystem.service.schedule.WeeklySchedule;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettings;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettingsCache;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -36,8 +73,25 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final TenantRepository tenantRepository;
     private final StaffRepository staffRepository;
     private final ServiceRepository serviceRepository;
-    private final StaffScheduleRepository staffScheduleRepository;
+    private final StaffScheduleCache staffScheduleCache;
+    private final ServiceCatalogCache serviceCatalogCache;
     private final CurrentStaffService currentStaffService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingCoordinator bookingCoordinator;
+    private final TenantSettingsCache tenantSettingsCache;
+    private final AppointmentExportWriter appointmentExportWriter;
+    private final AppointmentDailyStatRepository dailyStatRepository;
+    private final DailyStatsRecorder dailyStatsRecorder;
+
+    private static final int DEFAULT_NEXT_SLOTS = 10;
+    private static final int MAX_NEXT_SLOTS = 100;
+    private static final int MAX_RANGE_DAYS = 62;
+    private static final int DEFAULT_SCROLL_SIZE = 20;
+    private static final int MAX_SCROLL_SIZE = 100;
+    // Postgres exclusion_violation — ex_appointments_staff_time_range (V3 migratsiya)
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    // Hafta kunlari nomlari (uz) — har kun uchun Locale bo'yicha qidirilmaydi
+    private static final String[] DAY_NAMES = dayNames();
 
     /**
      * Appointment yaratish (navbat olish)
@@ -47,27 +101,26 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional
     public AppointmentResponse createAppointment(UUID tenantId, CreateAppointmentRequest request) {
-        Tenant tenant = tenantRepository.findById(tenantId)
+        TenantSettings tenant = tenantSettingsCache.get(tenantId)
                 .orElseThrow(() -> new NotFoundException("Tenant topilmadi"));
 
         Staff staff = staffRepository.findById(request.staffId())
                 .orElseThrow(() -> new NotFoundException("Staff topilmadi"));
 
-        Employement employement = serviceRepository.findByIdAndTenantId(request.serviceId(), tenantId)
-                .orElseThrow(() -> new NotFoundException("Employement topilmadi"));
+        Employement employement = findBookableService(tenantId, request.serviceId());
 
-        if (!staff.getTenant().getId().equals(tenant.getId())) {
+        if (!staff.getTenant().getId().equals(tenant.id())) {
             throw new BusinessException("Staff boshqa tenantga tegishli");
         }
-        if (!employement.getTenant().getId().equals(tenant.getId())) {
+        if (!employement.getTenant().getId().equals(tenant.id())) {
             throw new BusinessException("Employement boshqa tenantga tegishli");
         }
 
         LocalDate today = LocalDate.now();
-        LocalDate maxDate = today.plusDays(tenant.getAdvanceBookingDays());
+        LocalDate maxDate = today.plusDays(tenant.advanceBookingDays());
         if (request.appointmentDate().isAfter(maxDate)) {
             throw new BusinessException(
-                    "Faqat " + tenant.getAdvanceBookingDays() + " kun oldinga navbat olish mumkin");
+                    "Faqat " + tenant.advanceBookingDays() + " kun oldinga navbat olish mumkin");
         }
         LocalDateTime startDateTime=LocalDateTime.of(request.appointmentDate(),request.startTime());
         if (startDateTime.isBefore(LocalDateTime.now())) {
@@ -76,42 +129,36 @@ public class AppointmentServiceImpl implements AppointmentService {
 
 
         int dayOfWeek = request.appointmentDate().getDayOfWeek().getValue();
-        StaffSchedule schedule = staffScheduleRepository
-                .findByStaffIdAndDayOfWeek(staff.getId(), dayOfWeek)
-                .orElseThrow(() -> new BusinessException("Staff jadvali topilmadi"));
+        WeeklySchedule schedule = staffScheduleCache.get(staff.getId());
+        if (!schedule.hasDay(dayOfWeek)) {
+            throw new BusinessException("Staff jadvali topilmadi");
+        }
 
-        if (!schedule.getIsAvailable()) {
+        if (!schedule.isWorking(dayOfWeek)) {
             throw new BusinessException("Staff shu kuni ishlamaydi");
         }
 
-        if (!schedule.isWorkingTime(request.startTime())) {
+        if (!schedule.isWorkingTime(dayOfWeek, DayIntervals.toMinutes(request.startTime()))) {
             throw new BusinessException(
                     "Staff ish vaqtida emas. Ish vaqti: " +
-                            schedule.getStartTime() + " - " + schedule.getEndTime());
+                            SlotTables.time(schedule.start(dayOfWeek)) + " - " + SlotTables.time(schedule.end(dayOfWeek)));
         }
 
         LocalTime endTime = request.startTime().plusMinutes(employement.getDuration());
 
-        if (endTime.isAfter(schedule.getEndTime())) {
+        if (DayIntervals.toMinutes(endTime) > schedule.end(dayOfWeek)) {
             throw new BusinessException("Appointment ish vaqtidan tashqariga chiqib ketadi");
         }
 
-        boolean hasConflict = appointmentRepository.hasTimeConflict(
-                staff.getId(),
-                request.appointmentDate(),
-                request.startTime(),
-                endTime);
-
-        if (hasConflict) {
-            throw new BusinessException("Bu vaqt allaqachon band");
-        }
-
+        // Vaqt bandligi alohida so'rov bilan tekshirilmaydi — DB dagi exclusion constraint kafolatlaydi
         Appointment appointment = new Appointment();
-        appointment.setTenant(tenant);
+        // Tenant qatori qayta o'qilmaydi — faqat FK uchun reference
+        appointment.setTenant(tenantRepository.getReferenceById(tenantId));
         appointment.setStaff(staff);
         appointment.setEmployement(employement);
         appointment.setCustomerName(request.customerName());
         appointment.setCustomerPhone(request.customerPhone());
+        appointment.setCustomerPhoneNorm(PhoneNumbers.normalize(request.customerPhone()));
         appointment.setCustomerEmail(request.customerEmail());
         appointment.setAppointmentDate(request.appointmentDate());
         appointment.setStartTime(request.startTime());
@@ -120,16 +167,27 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointment.setNotes(request.notes());
 
         // Auto-confirm if enabled
-        if (tenant.getAutoConfirmBooking()) {
+        if (tenant.autoConfirmBooking()) {
             appointment.setStatus(AppointmentStatus.CONFIRMED);
             appointment.setConfirmedAt(java.time.LocalDateTime.now());
         } else {
             appointment.setStatus(AppointmentStatus.PENDING);
         }
 
-        appointment = appointmentRepository.save(appointment);
+        // Shu staff/kun uchun yozuvlar navbat bilan — constraint kutishlari va deadlock bo'lmaydi
+        bookingCoordinator.lock(staff.getId(), request.appointmentDate());
+        try {
+            appointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingConflict(e)) {
+                throw new BusinessException("Bu vaqt allaqachon band");
+            }
+            throw e;
+        }
+        bookingIntervalIndex.booked(appointment);
+        dailyStatsRecorder.created(appointment);
 
-        return AppointmentResponse.fromEntity(appointment);
+        return AppointmentResponse.fromEntity(appointment, tenant.organizationName());
     }
 
     /**
@@ -208,30 +266,25 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         int dayOfWeek = request.newDate().getDayOfWeek().getValue();
-        StaffSchedule schedule = staffScheduleRepository
-                .findByStaffIdAndDayOfWeek(appointment.getStaff().getId(), dayOfWeek)
-                .orElseThrow(() -> new BusinessException("Staff jadvali topilmadi"));
+        WeeklySchedule schedule = staffScheduleCache.get(appointment.getStaff().getId());
+        if (!schedule.hasDay(dayOfWeek)) {
+            throw new BusinessException("Staff jadvali topilmadi");
+        }
 
-        if (!schedule.getIsAvailable()) {
+        if (!schedule.isWorking(dayOfWeek)) {
             throw new BusinessException("Staff shu kuni ishlamaydi");
         }
 
-        if (!schedule.isWorkingTime(request.newTime())) {
+        if (!schedule.isWorkingTime(dayOfWeek, DayIntervals.toMinutes(request.newTime()))) {
             throw new BusinessException("Staff ish vaqtida emas");
         }
 
         LocalTime newEndTime = request.newTime().plusMinutes(appointment.getEmployement().getDuration());
 
-        boolean hasConflict = appointmentRepository.hasTimeConflict(
-                appointment.getStaff().getId(),
-                request.newDate(),
-                request.newTime(),
-                newEndTime);
-
-        if (hasConflict) {
-            throw new BusinessException("Yangi vaqt allaqachon band");
-        }
+        bookingCoordinator.lock(appointment.getStaff().getId(), request.newDate());
 
+        LocalDate previousDate = appointment.getAppointmentDate();
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
         appointment.setAppointmentDate(request.newDate());
         appointment.setStartTime(request.newTime());
         appointment.setEndTime(newEndTime);
@@ -242,7 +295,16 @@ public class AppointmentServiceImpl implements AppointmentService {
             appointment.setNotes(existingNotes + "\n[Vaqt o'zgartirildi: " + request.reason() + "]");
         }
 
-        appointment = appointmentRepository.save(appointment);
+        try {
+            appointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingConflict(e)) {
+                throw new BusinessException("Yangi vaqt allaqachon band");
+            }
+            throw e;
+        }
+        bookingIntervalIndex.moved(appointment, previousDate);
+        dailyStatsRecorder.changed(before, appointment);
 
         return AppointmentResponse.fromEntity(appointment);
     }
@@ -274,6 +336,7 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Allaqachon yakunlangan yoki bekor qilingan");
         }
 
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
         appointment.cancel();
 
         if (request != null && request.reason() != null && !request.reason().isBlank()) {
@@ -281,6 +344,8 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         appointment = appointmentRepository.save(appointment);
+        bookingIntervalIndex.released(appointment);
+        dailyStatsRecorder.changed(before, appointment);
 
         return AppointmentResponse.fromEntity(appointment);
     }
@@ -302,8 +367,10 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Faqat PENDING statusdagi appointmentlarni tasdiqlash mumkin");
         }
 
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
         appointment.confirm();
         appointment = appointmentRepository.save(appointment);
+        dailyStatsRecorder.changed(before, appointment);
 
         return AppointmentResponse.fromEntity(appointment);
     }
@@ -325,8 +392,11 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Faqat aktiv appointmentlarni yakunlash mumkin");
         }
 
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
         appointment.complete();
         appointment = appointmentRepository.save(appointment);
+        bookingIntervalIndex.released(appointment);
+        dailyStatsRecorder.changed(before, appointment);
 
         return AppointmentResponse.fromEntity(appointment);
     }
@@ -357,8 +427,11 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("No-show faqat appointment boshlangandan keyin belgilanishi mumkin");
         }
 
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
         appointment.setStatus(AppointmentStatus.NO_SHOW);
         appointment = appointmentRepository.save(appointment);
+        bookingIntervalIndex.released(appointment);
+        dailyStatsRecorder.changed(before, appointment);
 
         return AppointmentResponse.fromEntity(appointment);
     }
@@ -373,64 +446,128 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional(readOnly = true)
     public List<AvailableSlotResponse> getAvailableSlots(UUID tenantId, UUID staffId, LocalDate date, UUID serviceId) {
-        // Get staff
-
-        Staff staff = staffRepository.findById(staffId)
-                .orElseThrow(() -> new NotFoundException("Staff topilmadi"));
-        if (!staff.getTenant().getId().equals(tenantId)) {
-            throw new BusinessException("Staff boshqa tenantga tegishli");
-        }
+        requireTenantStaff(tenantId, staffId);
 
         // Get schedule for this day
         int dayOfWeek = date.getDayOfWeek().getValue();
-        StaffSchedule schedule = staffScheduleRepository
-                .findByStaffIdAndDayOfWeek(staffId, dayOfWeek)
-                .orElseThrow(() -> new BusinessException("Staff jadvali topilmadi"));
+        WeeklySchedule schedule = staffScheduleCache.get(staffId);
+        if (!schedule.hasDay(dayOfWeek)) {
+            throw new BusinessException("Staff jadvali topilmadi");
+        }
 
-        if (!schedule.getIsAvailable()) {
+        if (!schedule.isWorking(dayOfWeek)) {
             return Collections.emptyList();
         }
 
-        // Get slot duration from tenant
-        Integer slotDuration = staff.getTenant().getSlotDuration();
+        int slotDuration = resolveSlotDuration(tenantId, serviceId);
 
-        // If service provided, use service duration instead
-        if (serviceId != null) {
-            Employement employement = serviceRepository.findByIdAndTenantId(serviceId, tenantId)
-                    .orElseThrow(() -> new NotFoundException("Employement topilmadi"));
-            slotDuration = employement.getDuration();
+        // Booked intervals for this day (warm days are served from memory)
+        DayIntervals booked = bookingIntervalIndex.intervals(staffId, date);
+
+        return buildSlotGrid(schedule.start(dayOfWeek), schedule.end(dayOfWeek), slotDuration, booked);
+    }
+
+    /**
+     * Sana oralig'i uchun bo'sh vaqtlar — har bir kun uchun alohida so'rov o'rniga
+     * haftalik jadval va butun oraliqdagi band vaqtlar bir martadan o'qiladi
+     *
+     * @param staffId
+     * @param from  bugundan oldin bo'lsa — bugun
+     * @param to    advanceBookingDays chegarasidan keyin bo'lsa — chegara
+     * @param serviceId
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyAvailableSlotsResponse> getAvailableSlotsForRange(UUID tenantId, UUID staffId,
+                                                                       LocalDate from, LocalDate to, UUID serviceId) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Boshlanish sanasi tugash sanasidan keyin bo'lishi mumkin emas");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS - 1).isBefore(to)) {
+            throw new BadRequestException("Oraliq " + MAX_RANGE_DAYS + " kundan oshmasligi kerak");
+        }
+
+        requireTenantStaff(tenantId, staffId);
+
+        // findNextAvailableSlots bilan bir xil: o'tgan kunlar va advanceBookingDays dan keyingi kunlar
+        // qaytarilmaydi — bron qilish ularni baribir rad etadi
+        TenantSettings tenant = tenantSettingsCache.get(tenantId)
+                .orElseThrow(() -> new NotFoundException("Tenant topilmadi"));
+        LocalDate today = LocalDate.now();
+        LocalDate maxDate = today.plusDays(tenant.advanceBookingDays());
+        LocalDate start = from.isBefore(today) ? today : from;
+        LocalDate end = to.isAfter(maxDate) ? maxDate : to;
+        if (start.isAfter(end)) {
+            return Collections.emptyList();
         }
 
-        // Generate all possible slots
-        LocalTime startTime = schedule.getStartTime();
-        LocalTime endTime = schedule.getEndTime();
-        List<AvailableSlotResponse> slots = new ArrayList<>();
+        int slotDuration = resolveSlotDuration(tenantId, serviceId);
 
-        // Get booked appointments for this day
-        List<Appointment> bookedAppointments = appointmentRepository
-                .findActiveAppointments(staffId, date,
-                        Arrays.asList(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED));
+        WeeklySchedule schedule = staffScheduleCache.get(staffId);
 
-        LocalTime current = startTime;
-        while (current.plusMinutes(slotDuration).isBefore(endTime) ||
-                current.plusMinutes(slotDuration).equals(endTime)) {
+        Map<LocalDate, List<BookedInterval>> bookedByDate = new HashMap<>();
+        for (StaffBookedInterval interval : appointmentRepository.findBookedIntervalsInRange(List.of(staffId), start, end)) {
+            bookedByDate.computeIfAbsent(interval.date(), d -> new ArrayList<>()).add(interval.toBookedInterval());
+        }
 
-            LocalTime slotStart = current;
-            LocalTime slotEnd = current.plusMinutes(slotDuration);
+        List<DailyAvailableSlotsResponse> days = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            int dayOfWeek = date.getDayOfWeek().getValue();
+            if (!schedule.isWorking(dayOfWeek)) {
+                days.add(new DailyAvailableSlotsResponse(date, Collections.emptyList()));
+                continue;
+            }
+            DayIntervals booked = DayIntervals.of(bookedByDate.getOrDefault(date, List.of()));
+            days.add(new DailyAvailableSlotsResponse(date,
+                    buildSlotGrid(schedule.start(dayOfWeek), schedule.end(dayOfWeek), slotDuration, booked)));
+        }
 
-            // Check if slot is available
-            boolean available = bookedAppointments.stream()
-                    .noneMatch(app -> (slotStart.isBefore(app.getEndTime()) && slotEnd.isAfter(app.getStartTime())));
+        return days;
+    }
 
-            slots.add(new AvailableSlotResponse(
-                    slotStart,
-                    available,
-                    slotStart.format(java.time.format.DateTimeFormatter.ofPattern("HH:mm"))));
+    // Bron qilinadigan xizmat — tenant ga tegishli va aktiv bo'lishi kerak
+    private Employement findBookableService(UUID tenantId, UUID serviceId) {
+        Employement employement = serviceRepository.findByIdAndTenantId(serviceId, tenantId)
+                .orElseThrow(() -> new NotFoundException("Employement topilmadi"));
+        if (!Boolean.TRUE.equals(employement.getIsActive())) {
+            throw new BusinessException("Xizmat faol emas");
+        }
+        return employement;
+    }
 
-            current = current.plusMinutes(slotDuration);
+    // Staff shu tenantga tegishli — katalog nusxasidan. Nusxadan keyin yaratilgan staff uchungina DB ga boriladi
+    private void requireTenantStaff(UUID tenantId, UUID staffId) {
+        if (serviceCatalogCache.get(tenantId).hasStaff(staffId)) {
+            return;
         }
+        if (!staffRepository.existsByIdAndTenantId(staffId, tenantId)) {
+            throw new NotFoundException("Staff topilmadi");
+        }
+    }
 
-        return slots;
+    // Slot uzunligi: xizmat berilgan bo'lsa — uning davomiyligi, aks holda tenant sozlamasi (ikkalasi ham keshdan)
+    private int resolveSlotDuration(UUID tenantId, UUID serviceId) {
+        if (serviceId != null) {
+            return serviceCatalogCache.get(tenantId).service(serviceId)
+                    .orElseThrow(() -> new NotFoundException("Employement topilmadi"))
+                    .duration();
+        }
+        return tenantSettingsCache.get(tenantId)
+                .orElseThrow(() -> new NotFoundException("Tenant topilmadi"))
+                .slotDuration();
+    }
+
+    // Ish vaqti bo'yicha slot to'ri — daqiqalarda (int) hisoblanadi, javob obyektlari SlotTables dan olinadi
+    private List<AvailableSlotResponse> buildSlotGrid(int open, int close, int slotDuration, DayIntervals booked) {
+        if (slotDuration <= 0 || open + slotDuration > close) {
+            return Collections.emptyList();
+        }
+
+        AvailableSlotResponse[] slots = new AvailableSlotResponse[(close - open) / slotDuration];
+        for (int i = 0, slot = open; i < slots.length; i++, slot += slotDuration) {
+            slots[i] = SlotTables.slot(slot, !booked.overlaps(slot, slot + slotDuration));
+        }
+        return Arrays.asList(slots);
     }
 
     /**
@@ -445,7 +582,94 @@ public class AppointmentServiceImpl implements AppointmentService {
     public boolean isSlotAvailable(UUID tenantId, UUID staffId, LocalDate date, LocalTime time, Integer duration) {
         LocalTime endTime = time.plusMinutes(duration);
 
-        return !appointmentRepository.hasTimeConflict(staffId, date, time, endTime);
+        return bookingIntervalIndex.isFree(staffId, date, time, endTime);
+    }
+
+    /**
+     * Eng yaqin bo'sh vaqtlar — xizmatni bajaradigan barcha aktiv staff lar bo'yicha.
+     * Staff lar va butun oraliqdagi band vaqtlar bittadan query bilan, haftalik jadvallar keshdan olinadi.
+     *
+     * @param serviceId
+     * @param from  bo'sh bo'lsa — bugun
+     * @param to    bo'sh bo'lsa — tenant ning advanceBookingDays chegarasi
+     * @param limit
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NextAvailableSlotResponse> findNextAvailableSlots(UUID tenantId, UUID serviceId,
+                                                                  LocalDate from, LocalDate to, Integer limit) {
+        TenantSettings tenant = tenantSettingsCache.get(tenantId)
+                .orElseThrow(() -> new NotFoundException("Tenant topilmadi"));
+        Employement employement = findBookableService(tenantId, serviceId);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate maxDate = today.plusDays(tenant.advanceBookingDays());
+        LocalDate start = from == null || from.isBefore(today) ? today : from;
+        LocalDate end = to == null || to.isAfter(maxDate) ? maxDate : to;
+        int maxSlots = limit == null || limit <= 0 ? DEFAULT_NEXT_SLOTS : Math.min(limit, MAX_NEXT_SLOTS);
+
+        if (start.isAfter(end)) {
+            return Collections.emptyList();
+        }
+
+        List<Staff> staffList = staffRepository.findActiveStaffByServiceIdAndTenantId(serviceId, tenantId);
+        if (staffList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> staffIds = staffList.stream().map(Staff::getId).toList();
+
+        Map<UUID, WeeklySchedule> weekly = staffScheduleCache.getAll(staffIds);
+
+        // staffId -> sana -> band vaqtlar
+        Map<UUID, Map<LocalDate, List<BookedInterval>>> booked = new HashMap<>();
+        for (StaffBookedInterval interval : appointmentRepository.findBookedIntervalsInRange(staffIds, start, end)) {
+            booked.computeIfAbsent(interval.staffId(), id -> new HashMap<>())
+                    .computeIfAbsent(interval.date(), d -> new ArrayList<>())
+                    .add(interval.toBookedInterval());
+        }
+
+        int duration = employement.getDuration();
+        // Bugun uchun — hozirgi daqiqadan keyingi slotlar
+        int nowMinutes = DayIntervals.toMinutes(now.toLocalTime()) + 1;
+        List<NextAvailableSlotResponse> result = new ArrayList<>();
+
+        for (LocalDate date = start; !date.isAfter(end) && result.size() < maxSlots; date = date.plusDays(1)) {
+            int dayOfWeek = date.getDayOfWeek().getValue();
+            int minStart = date.equals(today) ? nowMinutes : 0;
+            List<NextAvailableSlotResponse> daySlots = new ArrayList<>();
+
+            for (Staff staff : staffList) {
+                WeeklySchedule schedule = weekly.get(staff.getId());
+                if (!schedule.isWorking(dayOfWeek)) {
+                    continue;
+                }
+                DayIntervals intervals = DayIntervals.of(
+                        booked.getOrDefault(staff.getId(), Map.of()).getOrDefault(date, List.of()));
+
+                int open = schedule.start(dayOfWeek);
+                int close = schedule.end(dayOfWeek);
+                int found = 0;
+                for (int slot = open; slot + duration <= close && found < maxSlots; slot += duration) {
+                    if (slot >= minStart && !intervals.overlaps(slot, slot + duration)) {
+                        daySlots.add(new NextAvailableSlotResponse(staff.getId(), staff.getDisplayName(),
+                                date, SlotTables.time(slot), SlotTables.display(slot)));
+                        found++;
+                    }
+                }
+            }
+
+            daySlots.sort(Comparator.comparing(NextAvailableSlotResponse::time)
+                    .thenComparing(NextAvailableSlotResponse::staffName));
+            for (NextAvailableSlotResponse slot : daySlots) {
+                if (result.size() == maxSlots) {
+                    break;
+                }
+                result.add(slot);
+            }
+        }
+
+        return result;
     }
 
     /**
@@ -524,7 +748,9 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Telefon raqami talab qilinadi");
         }
 
-        return appointmentRepository.findByCustomerPhoneAndTenantId(phone.trim(), tenantId)
+        return appointmentRepository
+                .findByTenantIdAndCustomerPhoneNormOrderByAppointmentDateDescStartTimeDesc(
+                        tenantId, PhoneNumbers.normalize(phone))
                 .stream()
                 .map(AppointmentResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -582,7 +808,8 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Telefon raqami talab qilinadi");
         }
 
-        return appointmentRepository.findUpcomingAppointmentsByPhoneAndTenantId(phone.trim(), LocalDate.now(), tenantId)
+        return appointmentRepository.findUpcomingAppointmentsByPhoneAndTenantId(
+                        PhoneNumbers.normalize(phone), LocalDate.now(), tenantId)
                 .stream()
                 .map(AppointmentResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -605,7 +832,8 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         // Use tenant-scoped query
         Pageable pageable = org.springframework.data.domain.PageRequest.of(0, limit != null ? limit : 10);
-        return appointmentRepository.findPastAppointmentsByPhoneAndTenantId(phone.trim(), tenantId, pageable)
+        return appointmentRepository.findPastAppointmentsByPhoneAndTenantId(
+                        PhoneNumbers.normalize(phone), tenantId, pageable)
                 .stream()
                 .map(AppointmentResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -646,17 +874,36 @@ public class AppointmentServiceImpl implements AppointmentService {
      */
     @Override
     public List<AppointmentResponse> getAppointmentsByDateRange(UUID tenantId, LocalDate startDate, LocalDate endDate) {
+        // A'zolik tenantId bo'yicha topiladi — alohida tenant tekshiruvi shart emas
         currentStaffService.requireOwnerOrManager(tenantId);
-        Staff staff = currentStaffService.getCurrentStaff(tenantId);
-        if (!staff.getTenant().getId().equals(tenantId)) {
-            throw new AccessDeniedException("Bu tenantga ruxsat yo‘q");
-        }
         return appointmentRepository.findByTenantIdAndDateRange(tenantId, startDate, endDate)
                 .stream()
                 .map(AppointmentResponse::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sana oralig'idagi appointmentlarni kursor orqali oqim sifatida eksport qiladi.
+     * target faqat tekshiruvlardan keyin chaqiriladi — xato bo'lsa javob hali JSON bo'lib qoladi.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAppointments(UUID tenantId, LocalDate startDate, LocalDate endDate,
+                                   AppointmentExportFormat format, Supplier<OutputStream> target) {
+        currentStaffService.requireOwnerOrManager(tenantId);
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("Tugash sanasi boshlanish sanasidan oldin bo'lishi mumkin emas");
+        }
+
+        try (Stream<AppointmentExportRow> rows =
+                     appointmentRepository.streamExportRows(tenantId, startDate, endDate)) {
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(target.get(), StandardCharsets.UTF_8));
+            return appointmentExportWriter.write(format, rows, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Staff bo'yicha sana oralig'ida appointmentlar
      *
@@ -686,6 +933,65 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .map(AppointmentResponse::fromEntity);
     }
 
+    /**
+     * Keyset pagination bilan appointmentlar (yangilari birinchi)
+     *
+     * @param activeOnly
+     * @param cursor oldingi sahifaning nextCursor i, birinchi sahifa uchun bo'sh
+     * @param size
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> scrollAppointments(UUID tenantId, Boolean activeOnly, String cursor, Integer size) {
+        currentStaffService.requireOwnerOrManager(tenantId);
+        int limit = scrollSize(size);
+        boolean active = Boolean.TRUE.equals(activeOnly);
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        // Bitta ortiqcha qator — keyingi sahifa borligini COUNT siz bilish uchun
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<Appointment> rows = after == null
+                ? appointmentRepository.scrollByTenantId(tenantId, active, page)
+                : appointmentRepository.scrollByTenantIdAfter(
+                        tenantId, active, after.date(), after.startTime(), after.id(), page);
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * Staff appointmentlari keyset pagination bilan (yangilari birinchi)
+     *
+     * @param staffId
+     * @param status bo'sh bo'lsa — barcha statuslar
+     * @param cursor oldingi sahifaning nextCursor i, birinchi sahifa uchun bo'sh
+     * @param size
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> scrollStaffAppointments(UUID tenantId, UUID staffId, AppointmentStatus status,
+                                                                   String cursor, Integer size) {
+        currentStaffService.requireStaffRole(tenantId);
+        int limit = scrollSize(size);
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<Appointment> rows = after == null
+                ? appointmentRepository.scrollByStaffId(tenantId, staffId, status, page)
+                : appointmentRepository.scrollByStaffIdAfter(
+                        tenantId, staffId, status, after.date(), after.startTime(), after.id(), page);
+        return toCursorPage(rows, limit);
+    }
+
+    private static int scrollSize(Integer size) {
+        return size == null || size <= 0 ? DEFAULT_SCROLL_SIZE : Math.min(size, MAX_SCROLL_SIZE);
+    }
+
+    private static CursorPage<AppointmentResponse> toCursorPage(List<Appointment> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<Appointment> items = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? AppointmentCursor.of(items.getLast()).encode() : null;
+        return new CursorPage<>(items.stream().map(AppointmentResponse::fromEntity).toList(), nextCursor, hasNext);
+    }
+
     /**
      * Calendar view uchun ma'lumotlar
      * 
@@ -695,41 +1001,39 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public List<AppointmentCalendarResponse> getCalendarData(UUID tenantId, LocalDate startDate, LocalDate endDate) {
         currentStaffService.requireOwnerOrManager(tenantId);
-        List<Appointment> appointments = appointmentRepository
-                .findByTenantIdAndDateRange(tenantId, startDate, endDate);
-
-        Map<LocalDate, List<Appointment>> appointmentsByDate = appointments.stream()
-                .collect(Collectors.groupingBy(Appointment::getAppointmentDate));
-
-        List<AppointmentCalendarResponse> calendar = new ArrayList<>();
+        if (endDate.isBefore(startDate)) {
+            return List.of();
+        }
+        // Kunlar bo'yicha zich massivlar — ma'lumot bo'lmagan kunlar nol bo'lib qoladi
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int[] total = new int[days];
+        int[] confirmed = new int[days];
+        int[] pending = new int[days];
+        int[] completed = new int[days];
+
+        // Rollup dan GROUP BY (sana, status) — entity lar yuklanmaydi
+        for (DailyStatusCount row : dailyStatRepository.sumByDateAndStatus(tenantId, startDate, endDate)) {
+            int day = (int) ChronoUnit.DAYS.between(startDate, row.date());
+            int count = row.count().intValue();
+            total[day] += count;
+            switch (row.status()) {
+                case CONFIRMED -> confirmed[day] += count;
+                case PENDING   -> pending[day]   += count;
+                case COMPLETED -> completed[day] += count;
+                default -> { }
+            }
+        }
 
+        List<AppointmentCalendarResponse> calendar = new ArrayList<>(days);
         LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            List<Appointment> dayAppointments = appointmentsByDate.getOrDefault(current, Collections.emptyList());
-
-            long confirmed = dayAppointments.stream()
-                    .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                    .count();
-
-            long pending = dayAppointments.stream()
-                    .filter(a -> a.getStatus() == AppointmentStatus.PENDING)
-                    .count();
-
-            long completed = dayAppointments.stream()
-                    .filter(a -> a.getStatus() == AppointmentStatus.COMPLETED)
-                    .count();
-
-            String dayName = current.getDayOfWeek()
-                    .getDisplayName(java.time.format.TextStyle.FULL, Locale.forLanguageTag("uz-UZ"));
-
+        for (int day = 0; day < days; day++) {
             calendar.add(AppointmentCalendarResponse.fromEntity(
                     current,
-                    dayName,
-                    dayAppointments.size(),
-                    (int) confirmed,
-                    (int) pending,
-                    (int) completed));
-
+                    DAY_NAMES[current.getDayOfWeek().ordinal()],
+                    total[day],
+                    confirmed[day],
+                    pending[day],
+                    completed[day]));
             current = current.plusDays(1);
         }
 
@@ -742,9 +1046,10 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public AppointmentStatisticsResponse getStatistics(UUID tenantId) {
         currentStaffService.requireOwnerOrManager(tenantId);
-        List<Object[]> rows = appointmentRepository.countAndSumByStatusForTenant(tenantId);
-        long uniqueDays = appointmentRepository.countDistinctDaysForTenant(tenantId);
-        return buildStatisticsFromRows(tenantId, rows, uniqueDays);
+        // Rollup dan o'qiladi — narx appointmentlar soniga emas, kunlar soniga bog'liq
+        List<StatusTotals> totals = dailyStatRepository.sumByStatusForTenant(tenantId);
+        long uniqueDays = dailyStatRepository.countDaysForTenant(tenantId);
+        return buildStatistics(tenantId, totals, uniqueDays);
     }
 
     /**
@@ -769,11 +1074,32 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BusinessException("Staff boshqa tenantga tegishli");
         }
 
-        List<Appointment> allAppointments = appointmentRepository
-                .findByStaffId(staffId, org.springframework.data.domain.PageRequest.of(0, 10_000))
-                .getContent();
+        List<StaffStatusAggregate> aggregates = appointmentRepository.aggregateByStatusForStaff(staffId);
+        long uniqueDays = aggregates.isEmpty() ? 0 : aggregates.get(0).distinctDays();
+        return buildStatistics(tenantId, totalsOf(aggregates), uniqueDays);
+    }
+
+    /**
+     * Tenant ning barcha staff lari statistikasi — bitta aggregate query
+     */
+    @Override
+    public List<StaffAppointmentStatisticsResponse> getStaffStatisticsByTenant(UUID tenantId) {
+        currentStaffService.requireOwnerOrManager(tenantId);
 
-        return calculateStatistics(tenantId, allAppointments);
+        Map<UUID, List<StaffStatusAggregate>> byStaff = appointmentRepository
+                .aggregateByStaffAndStatusForTenant(tenantId)
+                .stream()
+                .collect(Collectors.groupingBy(StaffStatusAggregate::staffId));
+
+        // Appointmenti yo'q staff lar ham nol statistika bilan qaytadi
+        List<StaffAppointmentStatisticsResponse> result = new ArrayList<>();
+        for (UUID staffId : staffRepository.findIdsByTenantId(tenantId)) {
+            List<StaffStatusAggregate> aggregates = byStaff.getOrDefault(staffId, List.of());
+            long uniqueDays = aggregates.isEmpty() ? 0 : aggregates.get(0).distinctDays();
+            result.add(new StaffAppointmentStatisticsResponse(staffId,
+                    buildStatistics(tenantId, totalsOf(aggregates), uniqueDays)));
+        }
+        return result;
     }
 
     /**
@@ -785,21 +1111,26 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public AppointmentStatisticsResponse getStatisticsByDateRange(UUID tenantId, LocalDate startDate, LocalDate endDate) {
         currentStaffService.requireOwnerOrManager(tenantId);
-        List<Object[]> rows = appointmentRepository.countAndSumByStatusForTenantInRange(tenantId, startDate, endDate);
-        long uniqueDays = appointmentRepository.countDistinctDaysForTenantInRange(tenantId, startDate, endDate);
-        return buildStatisticsFromRows(tenantId, rows, uniqueDays);
+        List<StatusTotals> totals = dailyStatRepository.sumByStatusForTenantInRange(tenantId, startDate, endDate);
+        long uniqueDays = dailyStatRepository.countDaysForTenantInRange(tenantId, startDate, endDate);
+        return buildStatistics(tenantId, totals, uniqueDays);
+    }
+
+    private static List<StatusTotals> totalsOf(List<StaffStatusAggregate> aggregates) {
+        return aggregates.stream().map(StaffStatusAggregate::totals).toList();
     }
 
     // Aggregate query natijasidan statistika quramiz — xotiraga hech qanday Appointment yuklanmaydi
-    private AppointmentStatisticsResponse buildStatisticsFromRows(UUID tenantId, List<Object[]> rows, long uniqueDays) {
+    private AppointmentStatisticsResponse buildStatistics(UUID tenantId, List<StatusTotals> totals,
+                                                          long uniqueDays) {
         long pending = 0, confirmed = 0, completed = 0, cancelled = 0, noShow = 0;
         BigDecimal completedRevenue = BigDecimal.ZERO;
         BigDecimal pendingRevenue   = BigDecimal.ZERO;
 
-        for (Object[] row : rows) {
-            AppointmentStatus status = (AppointmentStatus) row[0];
-            long cnt  = ((Number) row[1]).longValue();
-            BigDecimal sum = (BigDecimal) row[2];
+        for (StatusTotals row : totals) {
+            AppointmentStatus status = row.status();
+            long cnt  = row.count();
+            BigDecimal sum = row.revenue();
             if (sum == null) sum = BigDecimal.ZERO;
             switch (status) {
                 case PENDING   -> { pending   += cnt; pendingRevenue   = pendingRevenue.add(sum); }
@@ -827,33 +1158,21 @@ public class AppointmentServiceImpl implements AppointmentService {
                 cancellationRate);
     }
 
-    // getStaffStatistics uchun (hali list-based, lekin kamroq muammo)
-    private AppointmentStatisticsResponse calculateStatistics(UUID tenantId, List<Appointment> appointments) {
-        long pending   = appointments.stream().filter(a -> a.getStatus() == AppointmentStatus.PENDING).count();
-        long confirmed = appointments.stream().filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED).count();
-        long completed = appointments.stream().filter(a -> a.getStatus() == AppointmentStatus.COMPLETED).count();
-        long cancelled = appointments.stream().filter(a -> a.getStatus() == AppointmentStatus.CANCELLED).count();
-        long noShow    = appointments.stream().filter(a -> a.getStatus() == AppointmentStatus.NO_SHOW).count();
-        long total     = appointments.size();
-
-        BigDecimal completedRevenue = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.COMPLETED)
-                .map(Appointment::getTotalPrice).filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal pendingRevenue = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.PENDING || a.getStatus() == AppointmentStatus.CONFIRMED)
-                .map(Appointment::getTotalPrice).filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long uniqueDays = appointments.stream().map(Appointment::getAppointmentDate).distinct().count();
-        double avgPerDay = uniqueDays > 0 ? (double) total / uniqueDays : 0;
-        long nonCancelled = total - cancelled;
-        double completionRate   = nonCancelled > 0 ? (double) completed / nonCancelled * 100 : 0;
-        double cancellationRate = total > 0 ? (double) cancelled / total * 100 : 0;
+    private static String[] dayNames() {
+        Locale uz = Locale.forLanguageTag("uz-UZ");
+        String[] names = new String[7];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            names[day.ordinal()] = day.getDisplayName(TextStyle.FULL, uz);
+        }
+        return names;
+    }
 
-        return AppointmentStatisticsResponse.fromEntity(
-                tenantId, total, pending, confirmed, completed, cancelled, noShow,
-                completedRevenue, pendingRevenue, completedRevenue,
-                avgPerDay, completionRate, cancellationRate);
+    private static boolean isBookingConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -4,18 +4,22 @@ import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.dto.*;
 import org.architect.multitenantappointmentsystem.dto.request.LoginRequest;
 import org.architect.multitenantappointmentsystem.dto.request.RegisterRequest;
-import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AuthResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.MyAppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserMeResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserResponse;
-import org.architect.multitenantappointmentsystem.entity.Appointment;
 import org.architect.multitenantappointmentsystem.entity.User;
 import org.architect.multitenantappointmentsystem.exception.BusinessException;
 import org.architect.multitenantappointmentsystem.repository.AppointmentRepository;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
 import org.architect.multitenantappointmentsystem.security.JwtService;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
+import org.architect.multitenantappointmentsystem.service.pagination.AppointmentCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -24,13 +28,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final int DEFAULT_SCROLL_SIZE = 20;
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
@@ -165,9 +174,17 @@ public class AuthServiceImpl implements AuthService {
         return ResponseDto.ok(response);
     }
 
+    /**
+     * Joriy foydalanuvchining barcha tenantlardagi bronlari, keyset pagination bilan.
+     * upcoming — eng yaqini birinchi, past — eng oxirgisi birinchi.
+     *
+     * @param type "upcoming" yoki "past"
+     * @param cursor oldingi sahifaning nextCursor i, birinchi sahifa uchun bo'sh
+     * @param size
+     */
     @Override
     @Transactional(readOnly = true)
-    public ResponseDto<List<AppointmentResponse>> getMyAppointments(String type) {
+    public ResponseDto<CursorPage<MyAppointmentResponse>> getMyAppointments(String type, String cursor, Integer size) {
         Optional<AuthUser> optional = AuthService.getCurrentUser();
         if (optional.isEmpty()) {
             return ResponseDto.unauthorized();
@@ -179,20 +196,57 @@ public class AuthServiceImpl implements AuthService {
             return ResponseDto.unauthorized();
         }
 
-        String email = user.getEmail();
-        List<Appointment> appointments;
+        String email = user.getEmail().toLowerCase(Locale.ROOT);
+        LocalDate today = LocalDate.now();
+        int limit = size == null || size <= 0 ? DEFAULT_SCROLL_SIZE : Math.min(size, MAX_SCROLL_SIZE);
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
 
+        // Bitta ortiqcha qator — keyingi sahifa borligini COUNT siz bilish uchun
+        List<CustomerAppointmentRow> rows;
         if ("upcoming".equalsIgnoreCase(type)) {
-            appointments = appointmentRepository.findUpcomingAppointmentsByEmail(
-                    email, LocalDate.now());
+            Pageable page = PageRequest.of(0, limit + 1);
+            rows = after == null
+                    ? appointmentRepository.findUpcomingByEmail(email, today, page)
+                    : appointmentRepository.findUpcomingByEmailAfter(
+                            email, today, after.date(), after.startTime(), after.id(), page);
         } else {
-            appointments = appointmentRepository.findPastAppointmentsByEmail(email);
+            rows = findPastRows(email, today, after, limit + 1);
         }
 
-        List<AppointmentResponse> responses = appointments.stream()
-                .map(AppointmentResponse::fromEntity)
-                .toList();
+        boolean hasNext = rows.size() > limit;
+        List<CustomerAppointmentRow> items = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CustomerAppointmentRow last = items.getLast();
+            nextCursor = new AppointmentCursor(last.appointmentDate(), last.startTime(), last.id()).encode();
+        }
+        return ResponseDto.ok(new CursorPage<>(
+                items.stream().map(MyAppointmentResponse::from).toList(), nextCursor, hasNext));
+    }
 
-        return ResponseDto.ok(responses);
+    /**
+     * Past = bugundan boshlab yopilgan bronlar + o'tgan kunlardagi barcha bronlar.
+     * Ikki tarmoq sana bo'yicha kesishmaydi, kamayish tartibida birinchisi to'liq ikkinchisidan oldin
+     * keladi — shuning uchun OR siz, ketma-ket ikki indeks skani bilan yig'iladi.
+     */
+    private List<CustomerAppointmentRow> findPastRows(String email, LocalDate today, AppointmentCursor after, int fetch) {
+        List<CustomerAppointmentRow> rows = new ArrayList<>(fetch);
+        boolean inClosedBranch = after == null || !after.date().isBefore(today);
+
+        if (inClosedBranch) {
+            Pageable page = PageRequest.of(0, fetch);
+            rows.addAll(after == null
+                    ? appointmentRepository.findClosedByEmailFrom(email, today, page)
+                    : appointmentRepository.findClosedByEmailFromAfter(
+                            email, today, after.date(), after.startTime(), after.id(), page));
+        }
+        if (rows.size() < fetch) {
+            Pageable page = PageRequest.of(0, fetch - rows.size());
+            rows.addAll(inClosedBranch
+                    ? appointmentRepository.findPastByEmailBefore(email, today, page)
+                    : appointmentRepository.findPastByEmailBeforeAfter(
+                            email, today, after.date(), after.startTime(), after.id(), page));
+        }
+        return rows;
     }
 }
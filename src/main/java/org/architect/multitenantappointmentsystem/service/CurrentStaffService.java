@@ -1,42 +1,62 @@
 package org.architect.multitenantappointmentsystem.service;
 
 import lombok.RequiredArgsConstructor;
-import org.architect.multitenantappointmentsystem.entity.Staff;
 import org.architect.multitenantappointmentsystem.entity.StaffRole;
 import org.architect.multitenantappointmentsystem.exception.AccessDeniedException;
 import org.architect.multitenantappointmentsystem.exception.NotFoundException;
 import org.architect.multitenantappointmentsystem.repository.StaffRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffMembership;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 @RequiredArgsConstructor
 public class CurrentStaffService {
 
+    private static final String MEMO_ATTRIBUTE = CurrentStaffService.class.getName() + ".memberships";
+
     private final StaffRepository staffRepository;
 
-    public Staff getCurrentStaff(UUID tenantId) {
+    /**
+     * Joriy user ning shu tenantdagi roli va aktivligi.
+     * HTTP so'rov ichida (user, tenant) uchun bir marta o'qiladi, keyingi tekshiruvlar DB ga bormaydi.
+     */
+    public Optional<StaffMembership> findCurrentMembership(UUID tenantId) {
         UUID currentUserId = AuthService.getCurrentUserId();
+        MembershipKey key = new MembershipKey(currentUserId, tenantId);
 
-        return staffRepository
-                .findByTenantIdAndUserId(tenantId, currentUserId)
+        Map<MembershipKey, Optional<StaffMembership>> memo = requestMemo();
+        if (memo == null) {
+            return staffRepository.findMembershipByTenantIdAndUserId(tenantId, currentUserId);
+        }
+        return memo.computeIfAbsent(key,
+                k -> staffRepository.findMembershipByTenantIdAndUserId(k.tenantId(), k.userId()));
+    }
+
+    public StaffMembership getCurrentMembership(UUID tenantId) {
+        return findCurrentMembership(tenantId)
                 .orElseThrow(() -> new NotFoundException("Staff topilmadi"));
     }
 
     public void requireOwnerOrManager(UUID tenantId) {
-        Staff staff = getCurrentStaff(tenantId);
+        StaffMembership staff = getCurrentMembership(tenantId);
 
-        if (staff.getRole() != StaffRole.OWNER &&
-            staff.getRole() != StaffRole.MANAGER) {
+        if (staff.role() != StaffRole.OWNER &&
+            staff.role() != StaffRole.MANAGER) {
             throw new AccessDeniedException("Ruxsat yo‘q");
         }
     }
 
-    public Staff requireActiveStaff(UUID tenantId) {
-        Staff staff = getCurrentStaff(tenantId);
+    public StaffMembership requireActiveStaff(UUID tenantId) {
+        StaffMembership staff = getCurrentMembership(tenantId);
 
-        if (staff.getIsActive() == null || !staff.getIsActive()) {
+        if (staff.isActive() == null || !staff.isActive()) {
             throw new AccessDeniedException("Xodim aktiv emas");
         }
 
@@ -44,11 +64,28 @@ public class CurrentStaffService {
     }
 
     public void requireStaffRole(UUID tenantId) {
-        Staff staff = getCurrentStaff(tenantId);
+        StaffMembership staff = getCurrentMembership(tenantId);
 
-        if (staff.getRole() != StaffRole.STAFF&& staff.getRole() != StaffRole.OWNER &&
-                staff.getRole() != StaffRole.MANAGER) {
+        if (staff.role() != StaffRole.STAFF&& staff.role() != StaffRole.OWNER &&
+                staff.role() != StaffRole.MANAGER) {
             throw new AccessDeniedException("Ruxsat yo‘q");
         }
     }
+
+    // So'rov tashqarisida (scheduler, test) memo yo'q — to'g'ridan-to'g'ri o'qiladi
+    @SuppressWarnings("unchecked")
+    private Map<MembershipKey, Optional<StaffMembership>> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object memo = attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<MembershipKey, Optional<StaffMembership>>();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<MembershipKey, Optional<StaffMembership>>) memo;
+    }
+
+    private record MembershipKey(UUID userId, UUID tenantId) {}
 }
@@ -16,6 +16,9 @@ import org.architect.multitenantappointmentsystem.exception.NotFoundException;
 import org.architect.multitenantappointmentsystem.repository.ServiceRepository;
 import org.architect.multitenantappointmentsystem.repository.StaffRepository;
 import org.architect.multitenantappointmentsystem.repository.TenantRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.ServiceStatisticsAggregate;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalog;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalogCache;
 import org.architect.multitenantappointmentsystem.service.interfaces.ServiceService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -23,16 +26,25 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.regex.Pattern;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 public class ServiceServiceImpl implements ServiceService {
+    // Qidiruv so'zlari: harf, o'nlik raqam va apostroflar (o'/o‘/oʻ) — qolgan hamma belgi ajratuvchi.
+    // \p{N} emas: unaccent "⑴" kabi belgilarni "(1)" ga aylantiradi va to_tsquery sintaksisini buzadi
+    private static final Pattern SEARCH_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}'`ʻʼ‘’]+");
+    // Normalizatsiyadan keyin bo'sh qolmaydigan (faqat apostrof / ъ / ь emas) so'zlar
+    private static final Pattern SEARCH_TOKEN_CONTENT = Pattern.compile("[\\p{L}\\p{Nd}&&[^ъьЪЬ]]");
+
     private final ServiceRepository serviceRepository;
     private final TenantRepository tenantRepository;
     private final StaffRepository staffRepository;
     private final CurrentStaffService currentStaffService;
+    private final ServiceCatalogCache serviceCatalogCache;
     /**
      * Employement yaratish
      *
@@ -63,6 +75,7 @@ public class ServiceServiceImpl implements ServiceService {
         employement.setIsActive(true);
 
         employement = serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -146,6 +159,7 @@ public class ServiceServiceImpl implements ServiceService {
         }
 
         employement = serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -163,6 +177,7 @@ public class ServiceServiceImpl implements ServiceService {
                 .orElseThrow(() -> new NotFoundException("Employement topilmadi: " + id));
         employement.setIsActive(false);
         serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
     }
 
     /**
@@ -178,6 +193,7 @@ public class ServiceServiceImpl implements ServiceService {
                 .orElseThrow(() -> new NotFoundException("Employement topilmadi: " + id));
         employement.setIsActive(true);
         employement = serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -195,6 +211,7 @@ public class ServiceServiceImpl implements ServiceService {
                 .orElseThrow(() -> new NotFoundException("Employement topilmadi: " + id));
         employement.setIsActive(false);
         employement = serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -204,10 +221,7 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public List<ServiceResponse> getAllServicesByTenant(UUID tenantId) {
-        return serviceRepository.findByTenantId(tenantId)
-                .stream()
-                .map(ServiceResponse::fromEntity)
-                .toList();
+        return serviceCatalogCache.get(tenantId).services();
     }
 
     /**
@@ -215,10 +229,7 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public List<ServiceResponse> getActiveServicesByTenant(UUID tenantId) {
-        return serviceRepository.findByTenantIdAndIsActive(tenantId, true)
-                .stream()
-                .map(ServiceResponse::fromEntity)
-                .toList();
+        return serviceCatalogCache.get(tenantId).activeServices();
     }
 
     /**
@@ -227,13 +238,16 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public List<ServiceResponse> getServicesByTenantOrdered(UUID tenantId, Boolean activeOnly) {
-        List<Employement> employements = activeOnly != null && activeOnly
-                ? serviceRepository.findByTenantIdAndIsActiveOrderByDisplayOrder(tenantId, true)
-                : serviceRepository.findByTenantIdOrderByDisplayOrder(tenantId);
+        ServiceCatalog catalog = serviceCatalogCache.get(tenantId);
+        return activeOnly != null && activeOnly ? catalog.activeServices() : catalog.services();
+    }
 
-        return employements.stream()
-                .map(ServiceResponse::fromEntity)
-                .toList();
+    /**
+     * Katalog versiyasi — katalog endpointlari uchun ETag
+     */
+    @Override
+    public long getCatalogVersion(UUID tenantId) {
+        return serviceCatalogCache.get(tenantId).version();
     }
 
     /**
@@ -257,14 +271,28 @@ public class ServiceServiceImpl implements ServiceService {
      * @param activeOnly
      */
     @Override
-    public List<ServiceResponse> searchServices(UUID tenantId, String keyword, Boolean activeOnly) {
-        List<Employement> employements = activeOnly != null && activeOnly
-                ? serviceRepository.searchActiveByKeyword(tenantId, keyword)
-                : serviceRepository.searchByKeyword(tenantId, keyword);
+    public Page<ServiceResponse> searchServices(UUID tenantId, String keyword, Boolean activeOnly, Pageable pageable) {
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return serviceRepository.searchServices(tenantId, query, activeOnly == null || activeOnly, pageable)
+                .map(ServiceResponse::fromEntity);
+    }
 
-        return employements.stream()
-                .map(ServiceResponse::fromEntity)
-                .toList();
+    // "soch oli" → "soch:* & oli:*" — har bir so'z prefiks bo'yicha. tsquery operatorlari (&, |, !, :, ...)
+    // so'rovga tushmaydi; apostroflar qoladi, ularni DB dagi uz_search_normalize olib tashlaydi
+    static String toPrefixQuery(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        StringJoiner query = new StringJoiner(" & ");
+        for (String token : SEARCH_TOKEN_SEPARATOR.split(keyword)) {
+            if (SEARCH_TOKEN_CONTENT.matcher(token).find()) {
+                query.add(token + ":*");
+            }
+        }
+        return query.toString();
     }
 
     /**
@@ -300,13 +328,14 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public List<ServiceResponse> getServicesByStaff(UUID tenantId, UUID staffId) {
-        Staff staff = staffRepository.findByIdAndTenantId(staffId, tenantId)
-                .orElseThrow(() -> new NotFoundException("Staff topilmadi: " + staffId));
-
-        return serviceRepository.findActiveServicesByStaffId(staffId)
-                .stream()
-                .map(ServiceResponse::fromEntity)
-                .toList();
+        return serviceCatalogCache.get(tenantId).servicesOfStaff(staffId)
+                .orElseGet(() -> {
+                    // Katalogda yo'q — snapshot dan keyin yaratilgan (hali servicesi yo'q) yoki begona staff
+                    if (!staffRepository.existsByIdAndTenantId(staffId, tenantId)) {
+                        throw new NotFoundException("Staff topilmadi: " + staffId);
+                    }
+                    return List.of();
+                });
     }
 
     /**
@@ -339,6 +368,7 @@ public class ServiceServiceImpl implements ServiceService {
 
         staff.addService(employement);
         staffRepository.save(staff);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -355,6 +385,7 @@ public class ServiceServiceImpl implements ServiceService {
         staff.getEmployements().remove(employement);
         employement.getStaff().remove(staff);
         staffRepository.save(staff);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -379,6 +410,7 @@ public class ServiceServiceImpl implements ServiceService {
 
         staffList.forEach(staff -> staff.addService(employement));
         staffRepository.saveAll(staffList);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -395,6 +427,7 @@ public class ServiceServiceImpl implements ServiceService {
             staffList.forEach(staff -> staff.getEmployements().remove(employement));
             staffRepository.saveAll(staffList);
             employement.getStaff().clear();
+            serviceCatalogCache.changed(tenantId);
         }
 
         return ServiceResponse.fromEntity(employement);
@@ -408,6 +441,7 @@ public class ServiceServiceImpl implements ServiceService {
                 .orElseThrow(() -> new NotFoundException("Employement topilmadi: " + id));
         employement.setDisplayOrder(displayOrder != null ? displayOrder : 0);
         employement = serviceRepository.save(employement);
+        serviceCatalogCache.changed(tenantId);
 
         return ServiceResponse.fromEntity(employement);
     }
@@ -434,6 +468,7 @@ public class ServiceServiceImpl implements ServiceService {
                     .ifPresent(service -> service.setDisplayOrder(finalI));
         }
         serviceRepository.saveAll(employements);
+        serviceCatalogCache.changed(tenantId);
     }
 
     /**
@@ -442,43 +477,25 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public ServiceStatisticsResponse getServiceStatistics(UUID tenantId) {
-        List<Employement> employements = serviceRepository.findByTenantId(tenantId);
-        long totalServices = employements.size();
-        long activeServices = employements.stream().filter(Employement::getIsActive).count();
+        ServiceStatisticsAggregate stats = serviceRepository.aggregateStatistics(tenantId);
+
+        long totalServices = stats.totalServices();
+        long activeServices = stats.activeServices();
         long inactiveServices = totalServices - activeServices;
 
-        BigDecimal totalPrice = employements.stream()
-                .map(Employement::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal averagePrice = totalServices > 0
-                ? totalPrice.divide(BigDecimal.valueOf(totalServices), 2, RoundingMode.HALF_UP)
+                ? stats.totalPrice().divide(BigDecimal.valueOf(totalServices), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
+        BigDecimal minPrice = stats.minPrice() != null ? stats.minPrice() : BigDecimal.ZERO;
+        BigDecimal maxPrice = stats.maxPrice() != null ? stats.maxPrice() : BigDecimal.ZERO;
+
+        int averageDuration = totalServices > 0
+                ? (int) Math.round((double) stats.totalDuration() / totalServices)
+                : 0;
+        int minDuration = stats.minDuration() != null ? stats.minDuration() : 0;
+        int maxDuration = stats.maxDuration() != null ? stats.maxDuration() : 0;
 
-        BigDecimal minPrice = employements.stream()
-                .map(Employement::getPrice)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-        BigDecimal maxPrice = employements.stream()
-                .map(Employement::getPrice)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-
-        int totalDuration = employements.stream()
-                .mapToInt(Employement::getDuration)
-                .sum();
-        int averageDuration = totalServices > 0 ? (int) Math.round((double) totalDuration / totalServices) : 0;
-        int minDuration = employements.stream()
-                .mapToInt(Employement::getDuration)
-                .min()
-                .orElse(0);
-        int maxDuration = employements.stream()
-                .mapToInt(Employement::getDuration)
-                .max()
-                .orElse(0);
-
-        long totalAppointments = employements.stream()
-                .mapToLong(service -> service.getAppointments() != null ? service.getAppointments().size() : 0)
-                .sum();
+        long totalAppointments = stats.totalAppointments();
 
         return new ServiceStatisticsResponse(
                 tenantId,
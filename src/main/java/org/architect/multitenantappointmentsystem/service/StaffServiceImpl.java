@@ -15,9 +15,12 @@ import org.architect.multitenantappointmentsystem.exception.BadRequestException;
 import org.architect.multitenantappointmentsystem.exception.BusinessException;
 import org.architect.multitenantappointmentsystem.exception.NotFoundException;
 import org.architect.multitenantappointmentsystem.repository.*;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffMembership;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
-import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
+import org.architect.multitenantappointmentsystem.security.PrincipalCache;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalogCache;
 import org.architect.multitenantappointmentsystem.service.interfaces.StaffService;
+import org.architect.multitenantappointmentsystem.service.schedule.StaffScheduleCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,6 +40,9 @@ public class StaffServiceImpl implements StaffService {
     private final UserRepository userRepository;
     private final ServiceRepository serviceRepository;
     private final CurrentStaffService currentStaffService;
+    private final PrincipalCache principalCache;
+    private final StaffScheduleCache staffScheduleCache;
+    private final ServiceCatalogCache serviceCatalogCache;
 
     @Override
     @Transactional
@@ -44,11 +50,8 @@ public class StaffServiceImpl implements StaffService {
         Tenant tenant = tenantRepository.findById(tenantId)
                 .orElseThrow(() -> new NotFoundException(
                         "Tenant topilmadi: " + tenantId));
-        UUID currentUserId = AuthService.getCurrentUserId();
-        Staff currentStaff = staffRepository
-                .findByTenantIdAndUserId(tenantId, currentUserId).orElseThrow(
-                        () -> new NotFoundException("Staff topilmadi"));
-        if (currentStaff.getRole() != StaffRole.OWNER) {
+        StaffMembership currentStaff = currentStaffService.getCurrentMembership(tenantId);
+        if (currentStaff.role() != StaffRole.OWNER) {
             throw new AccessDeniedException("Ruxsat yo‘q");
         }
         User user = userRepository.findById(request.userId())
@@ -67,6 +70,7 @@ public class StaffServiceImpl implements StaffService {
         staff.setIsActive(true);
 
         staff = staffRepository.save(staff);
+        principalCache.evict(user.getId());
         if (request.schedule() != null) {
             for (CreateStaffScheduleRequest scheduleRequest : request.schedule()) {
                 createOrUpdateSchedule(tenantId, staff.getId(), scheduleRequest);
@@ -116,11 +120,10 @@ public class StaffServiceImpl implements StaffService {
     @Transactional
     public StaffResponse updateStaff(UUID tenantId, UUID id, UpdateStaffRequest request) {
 
-        UUID currentUserId = AuthService.getCurrentUserId();
-        Staff currentStaff = staffRepository.findByTenantIdAndUserId(tenantId, currentUserId)
+        StaffMembership currentStaff = currentStaffService.findCurrentMembership(tenantId)
                 .orElseThrow(() -> new NotFoundException("Hozirgi staff topilmadi"));
 
-        if (currentStaff.getRole() != StaffRole.OWNER && currentStaff.getRole() != StaffRole.MANAGER) {
+        if (currentStaff.role() != StaffRole.OWNER && currentStaff.role() != StaffRole.MANAGER) {
             throw new AccessDeniedException("Sizda bu amalni bajarish huquqi yo‘q");
         }
 
@@ -131,7 +134,7 @@ public class StaffServiceImpl implements StaffService {
             throw new AccessDeniedException("Bu staff boshqa tenantga tegishli");
         }
 
-        if (currentStaff.getId().equals(id)&&request.role() != null) {
+        if (currentStaff.staffId().equals(id)&&request.role() != null) {
             throw new  BadRequestException("OWNER roli o'zgarmas");
         }
         if (request.role() != null) {
@@ -147,6 +150,13 @@ public class StaffServiceImpl implements StaffService {
             staffToUpdate.setIsActive(request.isActive());
         }
         staffToUpdate = staffRepository.save(staffToUpdate);
+        if (request.role() != null || request.isActive() != null) {
+            principalCache.evict(staffToUpdate.getUser().getId());
+        }
+        if (request.displayName() != null) {
+            // Jadval javoblarida staff ismi bor
+            staffScheduleCache.evict(staffToUpdate.getId());
+        }
         return StaffResponse.fromEntity(staffToUpdate);
     }
 
@@ -232,13 +242,11 @@ public class StaffServiceImpl implements StaffService {
             UUID staffId,
             CreateStaffScheduleRequest request) {
 
-        UUID currentUserId = AuthService.getCurrentUserId();
-        Staff currentStaff = staffRepository
-                .findByTenantIdAndUserId(tenantId, currentUserId)
+        StaffMembership currentStaff = currentStaffService.findCurrentMembership(tenantId)
                 .orElseThrow(() -> new AccessDeniedException("Staff topilmadi"));
 
-        if (currentStaff.getRole() != StaffRole.OWNER &&
-                currentStaff.getRole() != StaffRole.MANAGER) {
+        if (currentStaff.role() != StaffRole.OWNER &&
+                currentStaff.role() != StaffRole.MANAGER) {
             throw new AccessDeniedException("Ruxsat yo‘q");
         }
         Staff staff = staffRepository
@@ -270,6 +278,7 @@ public class StaffServiceImpl implements StaffService {
             schedule.setIsAvailable(request.isAvailable());
         }
         schedule= scheduleRepository.save(schedule);
+        staffScheduleCache.evict(staffId);
         return StaffScheduleResponse.fromEntity(schedule);
     }
 
@@ -277,9 +286,9 @@ public class StaffServiceImpl implements StaffService {
     @Transactional
     public void deleteStaff(UUID tenantId, UUID id) {
 
-        Staff currentStaff = currentStaffService.getCurrentStaff(tenantId);
+        StaffMembership currentStaff = currentStaffService.getCurrentMembership(tenantId);
 
-        if (currentStaff.getRole() != StaffRole.OWNER) {
+        if (currentStaff.role() != StaffRole.OWNER) {
             throw new AccessDeniedException("Faqat OWNER o‘chira oladi");
         }
 
@@ -288,6 +297,7 @@ public class StaffServiceImpl implements StaffService {
                 .orElseThrow(() -> new NotFoundException("Staff topilmadi: " + id));
 
         staff.setIsActive(false);
+        principalCache.evict(staff.getUser().getId());
     }
 
     @Override
@@ -299,6 +309,7 @@ public class StaffServiceImpl implements StaffService {
                 .orElseThrow(() -> new NotFoundException("Staff topilmadi: " + id));
 
         staff.setIsActive(true);
+        principalCache.evict(staff.getUser().getId());
 
         return StaffResponse.fromEntity(staff);
     }
@@ -313,6 +324,7 @@ public class StaffServiceImpl implements StaffService {
 
         staff.setIsActive(false);
         staffRepository.save(staff);
+        principalCache.evict(staff.getUser().getId());
 
         return StaffResponse.fromEntity(staff);
     }
@@ -325,10 +337,7 @@ public class StaffServiceImpl implements StaffService {
                 .findByIdAndTenantId(staffId, tenantId)
                 .orElseThrow(() -> new NotFoundException("Staff topilmadi"));
 
-        return scheduleRepository.findByStaffId(staff.getId())
-                .stream()
-                .map(StaffScheduleResponse::fromEntity)
-                .toList();
+        return staffScheduleCache.get(staff.getId()).responses();
     }
 
     @Override
@@ -369,6 +378,7 @@ public class StaffServiceImpl implements StaffService {
         schedule.setStartTime(request.startTime());
         schedule.setEndTime(request.endTime());
         schedule.setIsAvailable(request.isAvailable());
+        staffScheduleCache.evict(staffId);
 
         return StaffScheduleResponse.fromEntity(schedule);
     }
@@ -390,6 +400,7 @@ public class StaffServiceImpl implements StaffService {
                 .orElseThrow(() -> new NotFoundException("Schedule topilmadi"));
 
         schedule.setIsAvailable(false);
+        staffScheduleCache.evict(staffId);
     }
 
     /**
@@ -398,10 +409,10 @@ public class StaffServiceImpl implements StaffService {
     @Override
     @Transactional(readOnly = true)
     public List<StaffScheduleResponse> getAllSchedulesByTenant(UUID tenantId) {
-        return scheduleRepository
-                .findByStaffTenantId(tenantId)
+        return staffScheduleCache.getAll(staffRepository.findIdsByTenantId(tenantId))
+                .values()
                 .stream()
-                .map(StaffScheduleResponse::fromEntity)
+                .flatMap(schedule -> schedule.responses().stream())
                 .toList();
     }
 
@@ -424,6 +435,7 @@ public class StaffServiceImpl implements StaffService {
                 .orElseThrow(() -> new NotFoundException("Employement topilmadi"));
 
         staff.addService(service);
+        serviceCatalogCache.changed(tenantId);
 
         return StaffResponse.fromEntity(staff);
     }
@@ -447,6 +459,7 @@ public class StaffServiceImpl implements StaffService {
         staff.getEmployements().remove(employement);
         employement.getStaff().remove(staff);
         staff = staffRepository.save(staff);
+        serviceCatalogCache.changed(tenantId);
 
         return StaffResponse.fromEntity(staff);
     }
@@ -472,6 +485,7 @@ public class StaffServiceImpl implements StaffService {
         }
 
         employements.forEach(staff::addService);
+        serviceCatalogCache.changed(tenantId);
 
         return StaffResponse.fromEntity(staff);
     }
@@ -3,6 +3,7 @@ package org.architect.multitenantappointmentsystem.service;
 import lombok.RequiredArgsConstructor;
 import org.architect.multitenantappointmentsystem.dto.request.CreateTenantRequest;
 import org.architect.multitenantappointmentsystem.dto.response.TenantResponse;
+import org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse;
 import org.architect.multitenantappointmentsystem.dto.request.UpdateTenantRequest;
 import org.architect.multitenantappointmentsystem.entity.Staff;
 import org.architect.multitenantappointmentsystem.entity.StaffRole;
@@ -15,15 +16,17 @@ import org.architect.multitenantappointmentsystem.repository.StaffRepository;
 import org.architect.multitenantappointmentsystem.repository.TenantRepository;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
+import org.architect.multitenantappointmentsystem.security.PrincipalCache;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
 import org.architect.multitenantappointmentsystem.service.interfaces.TenantService;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettings;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettingsCache;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Service
@@ -32,6 +35,8 @@ public class TenantServiceImpl implements TenantService {
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
     private final StaffRepository staffRepository;
+    private final PrincipalCache principalCache;
+    private final TenantSettingsCache tenantSettingsCache;
 
     @Override
     @Transactional
@@ -72,6 +77,8 @@ public class TenantServiceImpl implements TenantService {
         owner.setIsActive(true);
 
         staffRepository.save(owner);
+        // Endi OWNER roli bor — keshdagi principal eskirdi
+        principalCache.evict(currentUser.getId());
 
         return TenantResponse.from(tenant);
 
@@ -93,20 +100,20 @@ public class TenantServiceImpl implements TenantService {
 
     @Override
     public TenantResponse getTenantById(UUID id) {
-        Tenant tenant = tenantRepository.findById(id)
+        TenantSettings tenant = tenantSettingsCache.get(id)
                 .orElseThrow(() -> new NotFoundException("Tenant topilmadi: " + id));
-        if (!tenant.getIsActive()) {
+        if (!tenant.isActive()) {
             throw new BusinessException("Tenant faol emas");
         }
-        return TenantResponse.from(tenant);
+        return tenant.toResponse();
     }
 
 
     @Override
     public TenantResponse getTenantBySlug(String slug) {
-        Tenant tenant = tenantRepository.findBySlug(slug)
+        return tenantSettingsCache.getBySlug(slug)
+                .map(TenantSettings::toResponse)
                 .orElseThrow(() -> new NotFoundException("Tenant topilmadi: " + slug));
-        return TenantResponse.from(tenant);
     }
 
     @Override
@@ -143,6 +150,7 @@ public class TenantServiceImpl implements TenantService {
         }
 
         tenant = tenantRepository.save(tenant);
+        tenantSettingsCache.evict(id);
         return TenantResponse.from(tenant);
     }
 
@@ -153,26 +161,29 @@ public class TenantServiceImpl implements TenantService {
 
         tenant.setIsActive(false);
         tenantRepository.save(tenant);
+        tenantSettingsCache.evict(id);
     }
 
     @Override
-    public Page<TenantResponse> getAllTenants(Pageable pageable) {
-        Page<Tenant> tenants = tenantRepository.findAll(pageable);
-
-        List<TenantResponse> activeTenants = tenants.getContent().stream()
-                .filter(Tenant::getIsActive)
-                .map(TenantResponse::from)
-                .toList();
-
-        return new PageImpl<>(activeTenants, pageable, tenants.getTotalElements());
+    public Page<TenantSummeryResponse> getAllTenants(Pageable pageable) {
+        // Filtr DB da — sahifalar to'liq, totalElements faqat aktivlarni sanaydi
+        return tenantRepository.findActiveSummaries(pageable);
     }
 
     @Override
-    public Page<TenantResponse> searchTenants(String q, Pageable pageable) {
+    public Page<TenantSummeryResponse> searchTenants(String q, Pageable pageable) {
         if (q == null || q.isBlank()) {
             return getAllTenants(pageable);
         }
-        return tenantRepository.searchActiveTenants(q.trim(), pageable)
-                .map(TenantResponse::from);
+        String query = q.trim().toLowerCase(Locale.ROOT);
+        return tenantRepository.searchActiveTenants(query, "%" + escapeLike(query) + "%", pageable)
+                .map(TenantSummeryResponse::from);
+    }
+
+    // Foydalanuvchi kiritgan % va _ wildcard emas, oddiy belgi sifatida qidiriladi
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
@@ -0,0 +1,123 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.architect.multitenantappointmentsystem.exception.BusinessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * (staff, sana) bo'yicha bron yozuvlarini ketma-ket bajaradi.
+ * Bitta JVM ichida — striped lock jadvali, node lar orasida — pg_advisory_xact_lock.
+ * Lock tranzaksiya tugaguncha (commit/rollback) ushlab turiladi, shuning uchun
+ * bir xil staff/kun uchun parallel so'rovlar navbat bilan o'tadi, boshqa staff lar esa parallel ishlaydi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCoordinator {
+
+    private static final int STRIPES = 1024;
+    private static final long MAX_WAIT_SECONDS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock[] stripes = createStripes();
+
+    private boolean advisoryLocksSupported;
+    private Timer localWait;
+    private Timer advisoryWait;
+
+    @PostConstruct
+    void init() {
+        localWait = lockWaitTimer("local");
+        advisoryWait = lockWaitTimer("advisory");
+        try (Connection connection = dataSource.getConnection()) {
+            advisoryLocksSupported = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("DB turini aniqlab bo'lmadi, advisory lock o'chirildi", e);
+            advisoryLocksSupported = false;
+        }
+    }
+
+    /**
+     * Joriy tranzaksiya uchun (staff, sana) lockini oladi — tranzaksiya tugaganda avtomatik bo'shaydi
+     */
+    public void lock(UUID staffId, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("BookingCoordinator.lock() faqat tranzaksiya ichida chaqiriladi");
+        }
+        long key = lockKey(staffId, date);
+        ReentrantLock stripe = stripes[Math.floorMod(Long.hashCode(key), STRIPES)];
+
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = stripe.tryLock(MAX_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Bron qilish to'xtatildi, qayta urinib ko'ring");
+        }
+        localWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new BusinessException("Hozir bu vaqtga so'rovlar ko'p, birozdan keyin urinib ko'ring");
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+
+        if (advisoryLocksSupported) {
+            long advisoryStarted = System.nanoTime();
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> { }, key);
+            advisoryWait.record(System.nanoTime() - advisoryStarted, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // staff + sana dan barqaror 64-bit kalit (barcha node larda bir xil)
+    static long lockKey(UUID staffId, LocalDate date) {
+        long hash = staffId.getMostSignificantBits() * 31 + staffId.getLeastSignificantBits();
+        hash = hash * 31 + date.toEpochDay();
+        // MurmurHash3 fmix64 — yaqin sanalar turli stripe larga tushishi uchun
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private Timer lockWaitTimer(String scope) {
+        return Timer.builder("booking.lock.wait")
+                .description("(staff, sana) bron lockini kutish vaqti")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private static ReentrantLock[] createStripes() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,105 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.TransactionCallbacks;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.architect.multitenantappointmentsystem.entity.Appointment;
+import org.architect.multitenantappointmentsystem.repository.AppointmentRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * (staff, sana) bo'yicha band vaqtlar indeksi.
+ * Birinchi so'rovda projection query orqali yuklanadi, keyin create/cancel/reschedule/complete
+ * da commit dan keyin inkremental yangilanadi — issiq kunlar uchun DB ga borilmaydi.
+ * Boshqa node lar shu staff ning kunlarini invalidatsiya bus orqali o'chiradi.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final long MAX_DAYS = 50_000;
+    // Bus o'chiq bo'lsa yoki xabar yo'qolsa — boshqa node lardagi o'zgarishlar shu vaqt ichida ko'rinadi
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AppointmentRepository appointmentRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<StaffDay, DayIntervals> days = Caffeine.newBuilder()
+            .maximumSize(MAX_DAYS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheRegion.BOOKING_INTERVALS, this::evictStaff, days::invalidateAll);
+    }
+
+    public DayIntervals intervals(UUID staffId, LocalDate date) {
+        return days.get(new StaffDay(staffId, date),
+                key -> DayIntervals.of(appointmentRepository.findBookedIntervals(key.staffId(), key.date())));
+    }
+
+    public boolean isFree(UUID staffId, LocalDate date, LocalTime start, LocalTime end) {
+        return isFree(staffId, date, start, end, null);
+    }
+
+    public boolean isFree(UUID staffId, LocalDate date, LocalTime start, LocalTime end, UUID ignoredAppointmentId) {
+        return !intervals(staffId, date).overlaps(
+                DayIntervals.toMinutes(start), DayIntervals.toMinutes(end), ignoredAppointmentId);
+    }
+
+    /**
+     * Yangi aktiv appointment (PENDING/CONFIRMED) saqlandi
+     */
+    public void booked(Appointment appointment) {
+        UUID id = appointment.getId();
+        StaffDay key = new StaffDay(appointment.getStaff().getId(), appointment.getAppointmentDate());
+        int start = DayIntervals.toMinutes(appointment.getStartTime());
+        int end = DayIntervals.toMinutes(appointment.getEndTime());
+        TransactionCallbacks.afterCommit(() -> days.asMap().computeIfPresent(key, (k, v) -> v.with(id, start, end)));
+        invalidationBus.publish(CacheRegion.BOOKING_INTERVALS, key.staffId());
+    }
+
+    /**
+     * Appointment bekor qilindi / yakunlandi / no-show — vaqt bo'shadi
+     */
+    public void released(Appointment appointment) {
+        UUID id = appointment.getId();
+        StaffDay key = new StaffDay(appointment.getStaff().getId(), appointment.getAppointmentDate());
+        TransactionCallbacks.afterCommit(() -> days.asMap().computeIfPresent(key, (k, v) -> v.without(id)));
+        invalidationBus.publish(CacheRegion.BOOKING_INTERVALS, key.staffId());
+    }
+
+    /**
+     * Appointment boshqa vaqtga ko'chirildi
+     */
+    public void moved(Appointment appointment, LocalDate previousDate) {
+        UUID id = appointment.getId();
+        UUID staffId = appointment.getStaff().getId();
+        StaffDay oldKey = new StaffDay(staffId, previousDate);
+        StaffDay newKey = new StaffDay(staffId, appointment.getAppointmentDate());
+        int start = DayIntervals.toMinutes(appointment.getStartTime());
+        int end = DayIntervals.toMinutes(appointment.getEndTime());
+        TransactionCallbacks.afterCommit(() -> {
+            days.asMap().computeIfPresent(oldKey, (k, v) -> v.without(id));
+            days.asMap().computeIfPresent(newKey, (k, v) -> v.without(id).with(id, start, end));
+        });
+        invalidationBus.publish(CacheRegion.BOOKING_INTERVALS, staffId);
+    }
+
+    // Boshqa node da staff ning bronlari o'zgardi — uning keshdagi barcha kunlari keyingi so'rovda qayta yuklanadi
+    void evictStaff(UUID staffId) {
+        days.asMap().keySet().removeIf(key -> key.staffId().equals(staffId));
+    }
+
+    private record StaffDay(UUID staffId, LocalDate date) {}
+}
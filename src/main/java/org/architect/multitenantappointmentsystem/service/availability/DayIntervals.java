@@ -0,0 +1,204 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bitta staff ning bitta kundagi band vaqtlari (kun boshidan daqiqalarda).
+ * Boshlanish vaqti bo'yicha tartiblangan massivlar + daqiqalik bandlik bitmap i (1440 bit = 23 long).
+ * O'zgarmas — har bir o'zgarish yangi nusxa qaytaradi, shuning uchun o'qish lock talab qilmaydi.
+ * Bo'shlik tekshiruvi bronlar soniga bog'liq emas: faqat oraliqqa tushgan so'zlar tekshiriladi.
+ */
+public final class DayIntervals {
+
+    private static final int MINUTES = SlotTables.MINUTES_PER_DAY;
+    private static final int WORDS = (MINUTES + 63) >>> 6;
+
+    public static final DayIntervals EMPTY =
+            new DayIntervals(new UUID[0], new int[0], new int[0]);
+
+    private final UUID[] ids;
+    private final int[] starts;
+    private final int[] ends;
+    // i-bit = kunning i-daqiqasi band (ustma-ust bronlar ham birlashadi)
+    private final long[] busy;
+
+    private DayIntervals(UUID[] ids, int[] starts, int[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.busy = new long[WORDS];
+        for (int i = 0; i < starts.length; i++) {
+            setRange(busy, clamp(starts[i]), clamp(ends[i]));
+        }
+    }
+
+    public static DayIntervals of(List<BookedInterval> intervals) {
+        if (intervals.isEmpty()) {
+            return EMPTY;
+        }
+        BookedInterval[] sorted = intervals.toArray(new BookedInterval[0]);
+        Arrays.sort(sorted, Comparator.comparing(BookedInterval::startTime));
+
+        UUID[] ids = new UUID[sorted.length];
+        int[] starts = new int[sorted.length];
+        int[] ends = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].appointmentId();
+            starts[i] = toMinutes(sorted[i].startTime());
+            ends[i] = toMinutes(sorted[i].endTime());
+        }
+        return new DayIntervals(ids, starts, ends);
+    }
+
+    public static int toMinutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * [start, end) oralig'i biror band vaqt bilan kesishadimi — bitmap bo'yicha, O(so'zlar)
+     */
+    public boolean overlaps(int start, int end) {
+        return anySet(busy, clamp(start), clamp(end));
+    }
+
+    /**
+     * [start, end) oralig'i kesishadimi — ignoredId ga tegishli interval hisobga olinmaydi
+     */
+    public boolean overlaps(int start, int end, UUID ignoredId) {
+        if (ignoredId == null || indexOf(ignoredId) < 0) {
+            return overlaps(start, end);
+        }
+        // O'z bronini chiqarib tashlash kerak — intervallar bo'yicha tekshiramiz
+        int upper = upperBound(end);
+        for (int i = upper - 1; i >= 0; i--) {
+            if (ends[i] > start && !ignoredId.equals(ids[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public DayIntervals with(UUID id, int start, int end) {
+        if (indexOf(id) >= 0) {
+            return this;
+        }
+        int pos = upperBound(start + 1);
+        UUID[] newIds = new UUID[ids.length + 1];
+        int[] newStarts = new int[starts.length + 1];
+        int[] newEnds = new int[ends.length + 1];
+
+        System.arraycopy(ids, 0, newIds, 0, pos);
+        System.arraycopy(starts, 0, newStarts, 0, pos);
+        System.arraycopy(ends, 0, newEnds, 0, pos);
+        newIds[pos] = id;
+        newStarts[pos] = start;
+        newEnds[pos] = end;
+        System.arraycopy(ids, pos, newIds, pos + 1, ids.length - pos);
+        System.arraycopy(starts, pos, newStarts, pos + 1, starts.length - pos);
+        System.arraycopy(ends, pos, newEnds, pos + 1, ends.length - pos);
+
+        return new DayIntervals(newIds, newStarts, newEnds);
+    }
+
+    public DayIntervals without(UUID id) {
+        int pos = indexOf(id);
+        if (pos < 0) {
+            return this;
+        }
+        if (ids.length == 1) {
+            return EMPTY;
+        }
+        UUID[] newIds = new UUID[ids.length - 1];
+        int[] newStarts = new int[starts.length - 1];
+        int[] newEnds = new int[ends.length - 1];
+
+        System.arraycopy(ids, 0, newIds, 0, pos);
+        System.arraycopy(starts, 0, newStarts, 0, pos);
+        System.arraycopy(ends, 0, newEnds, 0, pos);
+        System.arraycopy(ids, pos + 1, newIds, pos, ids.length - pos - 1);
+        System.arraycopy(starts, pos + 1, newStarts, pos, starts.length - pos - 1);
+        System.arraycopy(ends, pos + 1, newEnds, pos, ends.length - pos - 1);
+
+        return new DayIntervals(newIds, newStarts, newEnds);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // [from, to) bitlarini yoqadi
+    private static void setRange(long[] bits, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            bits[w] = -1L;
+        }
+        bits[last] |= lastMask;
+    }
+
+    // [from, to) da birorta bit yoqilganmi
+    private static boolean anySet(long[] bits, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return (bits[first] & firstMask & lastMask) != 0;
+        }
+        if ((bits[first] & firstMask) != 0) {
+            return true;
+        }
+        for (int w = first + 1; w < last; w++) {
+            if (bits[w] != 0) {
+                return true;
+            }
+        }
+        return (bits[last] & lastMask) != 0;
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(MINUTES, minute));
+    }
+
+    // starts[i] < value bo'lgan birinchi bo'lmagan indeks
+    private int upperBound(int value) {
+        int lo = 0, hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int indexOf(UUID id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i].equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
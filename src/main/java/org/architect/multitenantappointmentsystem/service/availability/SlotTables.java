@@ -0,0 +1,44 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import org.architect.multitenantappointmentsystem.dto.response.AvailableSlotResponse;
+
+import java.time.LocalTime;
+
+/**
+ * Kun ichidagi har bir daqiqa uchun oldindan tayyorlangan qiymatlar.
+ * Slot hisoblashda har bir nomzod uchun LocalTime, "HH:mm" satri yoki
+ * AvailableSlotResponse yaratilmaydi — hammasi o'zgarmas, jadvaldan olinadi.
+ */
+public final class SlotTables {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final LocalTime[] TIMES = new LocalTime[MINUTES_PER_DAY];
+    private static final String[] DISPLAY = new String[MINUTES_PER_DAY];
+    private static final AvailableSlotResponse[] FREE = new AvailableSlotResponse[MINUTES_PER_DAY];
+    private static final AvailableSlotResponse[] BUSY = new AvailableSlotResponse[MINUTES_PER_DAY];
+
+    static {
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            TIMES[minute] = LocalTime.of(minute / 60, minute % 60);
+            DISPLAY[minute] = String.format("%02d:%02d", minute / 60, minute % 60);
+            FREE[minute] = new AvailableSlotResponse(TIMES[minute], true, DISPLAY[minute]);
+            BUSY[minute] = new AvailableSlotResponse(TIMES[minute], false, DISPLAY[minute]);
+        }
+    }
+
+    private SlotTables() {
+    }
+
+    public static LocalTime time(int minute) {
+        return TIMES[minute];
+    }
+
+    public static String display(int minute) {
+        return DISPLAY[minute];
+    }
+
+    public static AvailableSlotResponse slot(int minute, boolean available) {
+        return available ? FREE[minute] : BUSY[minute];
+    }
+}
@@ -0,0 +1,104 @@
+package org.architect.multitenantappointmentsystem.service.catalog;
+
+import org.architect.multitenantappointmentsystem.dto.response.ServiceResponse;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffServiceLink;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tenant service katalogining o'zgarmas nusxasi.
+ * displayOrder bo'yicha tartiblangan servicelar, ulardan aktivlari va staff → aktiv servicelar bog'lanishi.
+ * version — tenants.catalog_version, ETag sifatida ishlatiladi.
+ */
+public final class ServiceCatalog {
+
+    private final long version;
+    private final List<ServiceResponse> services;
+    private final List<ServiceResponse> activeServices;
+    private final Map<UUID, ServiceResponse> servicesById;
+    private final Map<UUID, List<ServiceResponse>> servicesByStaff;
+
+    private ServiceCatalog(long version,
+                           List<ServiceResponse> services,
+                           List<ServiceResponse> activeServices,
+                           Map<UUID, ServiceResponse> servicesById,
+                           Map<UUID, List<ServiceResponse>> servicesByStaff) {
+        this.version = version;
+        this.services = services;
+        this.activeServices = activeServices;
+        this.servicesById = servicesById;
+        this.servicesByStaff = servicesByStaff;
+    }
+
+    /**
+     * @param orderedServices displayOrder bo'yicha tartiblangan barcha servicelar
+     * @param links           tenant staff lari va ularning servicelari (LEFT JOIN — servicesi yo'q staff ham bor)
+     */
+    public static ServiceCatalog of(long version, List<ServiceResponse> orderedServices, List<StaffServiceLink> links) {
+        Map<UUID, ServiceResponse> byId = new HashMap<>();
+        Map<UUID, Integer> position = new HashMap<>();
+        for (int i = 0; i < orderedServices.size(); i++) {
+            ServiceResponse service = orderedServices.get(i);
+            byId.put(service.id(), service);
+            position.put(service.id(), i);
+        }
+
+        Map<UUID, List<ServiceResponse>> byStaff = new HashMap<>();
+        for (StaffServiceLink link : links) {
+            List<ServiceResponse> staffServices = byStaff.computeIfAbsent(link.staffId(), id -> new ArrayList<>());
+            ServiceResponse service = link.serviceId() != null ? byId.get(link.serviceId()) : null;
+            // Faqat aktiv servicelar — nofaol service staff sahifasida ko'rinmaydi
+            if (service != null && Boolean.TRUE.equals(service.isActive())) {
+                staffServices.add(service);
+            }
+        }
+        byStaff.replaceAll((staffId, staffServices) -> {
+            staffServices.sort((a, b) -> Integer.compare(position.get(a.id()), position.get(b.id())));
+            return List.copyOf(staffServices);
+        });
+
+        List<ServiceResponse> active = orderedServices.stream()
+                .filter(service -> Boolean.TRUE.equals(service.isActive()))
+                .toList();
+
+        return new ServiceCatalog(version, List.copyOf(orderedServices), active, Map.copyOf(byId), Map.copyOf(byStaff));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<ServiceResponse> services() {
+        return services;
+    }
+
+    public List<ServiceResponse> activeServices() {
+        return activeServices;
+    }
+
+    /**
+     * id bo'yicha service (nofaollari ham)
+     */
+    public Optional<ServiceResponse> service(UUID serviceId) {
+        return Optional.ofNullable(servicesById.get(serviceId));
+    }
+
+    /**
+     * Staff shu tenantga tegishlimi — servicesi yo'q staff ham katalogda bor
+     */
+    public boolean hasStaff(UUID staffId) {
+        return servicesByStaff.containsKey(staffId);
+    }
+
+    /**
+     * Staff ning aktiv servicelari. Staff katalogda bo'lmasa (masalan, snapshot dan keyin yaratilgan) — empty
+     */
+    public Optional<List<ServiceResponse>> servicesOfStaff(UUID staffId) {
+        return Optional.ofNullable(servicesByStaff.get(staffId));
+    }
+}
@@ -0,0 +1,74 @@
+package org.architect.multitenantappointmentsystem.service.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.TransactionCallbacks;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.architect.multitenantappointmentsystem.dto.response.ServiceResponse;
+import org.architect.multitenantappointmentsystem.repository.ServiceRepository;
+import org.architect.multitenantappointmentsystem.repository.StaffRepository;
+import org.architect.multitenantappointmentsystem.repository.TenantRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tenant service katalogi keshi. Public booking sahifasi katalogni har safar o'qiydi,
+ * o'zgarishlar esa kam — shuning uchun o'qishlar xotiradan beriladi.
+ * Har bir katalog o'zgarishi changed() orqali versiyani oshiradi va nusxani o'chiradi.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceCatalogCache {
+
+    private static final long MAX_TENANTS = 10_000;
+    // totalAppointments shu vaqt ichida yangilanadi
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final TenantRepository tenantRepository;
+    private final ServiceRepository serviceRepository;
+    private final StaffRepository staffRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<UUID, ServiceCatalog> catalogs = Caffeine.newBuilder()
+            .maximumSize(MAX_TENANTS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheRegion.SERVICE_CATALOG, catalogs::invalidate, catalogs::invalidateAll);
+    }
+
+    public ServiceCatalog get(UUID tenantId) {
+        return catalogs.get(tenantId, this::load);
+    }
+
+    /**
+     * Katalog o'zgardi — versiyani oshiradi va nusxani darhol hamda commit dan keyin o'chiradi
+     */
+    public void changed(UUID tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        tenantRepository.incrementCatalogVersion(tenantId);
+        catalogs.invalidate(tenantId);
+        TransactionCallbacks.afterCommit(() -> catalogs.invalidate(tenantId));
+        invalidationBus.publish(CacheRegion.SERVICE_CATALOG, tenantId);
+    }
+
+    private ServiceCatalog load(UUID tenantId) {
+        // Versiya ma'lumotdan oldin o'qiladi — ETag hech qachon ma'lumotdan yangiroq bo'lmaydi
+        long version = tenantRepository.findCatalogVersion(tenantId).orElse(0L);
+        List<ServiceResponse> services = serviceRepository.findByTenantIdOrderByDisplayOrder(tenantId)
+                .stream()
+                .map(ServiceResponse::fromEntity)
+                .toList();
+        return ServiceCatalog.of(version, services, staffRepository.findServiceLinksByTenantId(tenantId));
+    }
+}
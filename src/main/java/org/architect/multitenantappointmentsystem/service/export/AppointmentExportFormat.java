@@ -0,0 +1,40 @@
+package org.architect.multitenantappointmentsystem.service.export;
+
+import org.architect.multitenantappointmentsystem.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Appointment eksport formatlari
+ */
+public enum AppointmentExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    AppointmentExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static AppointmentExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Noma'lum eksport formati: " + value);
+        }
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,95 @@
+package org.architect.multitenantappointmentsystem.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.repository.projection.AppointmentExportRow;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Eksport qatorlarini to'g'ridan-to'g'ri javob oqimiga yozadi — qatorlar ro'yxatga yig'ilmaydi,
+ * xotira sarfi oraliq uzunligiga bog'liq emas.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentExportWriter {
+
+    static final String CSV_HEADER = "id,date,start_time,end_time,status,staff,service," +
+            "customer_name,customer_phone,customer_email,total_price";
+    // Excel/Sheets shu belgilar bilan boshlangan katakni formula deb o'qiydi (OWASP CSV injection)
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    // Normallashtirilgan telefon raqami (+998901234567)
+    private static final Pattern PHONE = Pattern.compile("\\+?[0-9]+");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return yozilgan qatorlar soni
+     */
+    public long write(AppointmentExportFormat format, Stream<AppointmentExportRow> rows, Writer out) throws IOException {
+        long count = 0;
+        if (format == AppointmentExportFormat.CSV) {
+            out.write(CSV_HEADER);
+            out.write("\r\n");
+        }
+        Iterator<AppointmentExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            AppointmentExportRow row = iterator.next();
+            if (format == AppointmentExportFormat.CSV) {
+                writeCsv(row, out);
+            } else {
+                out.write(objectMapper.writeValueAsString(row));
+                out.write('\n');
+            }
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    private static void writeCsv(AppointmentExportRow row, Writer out) throws IOException {
+        out.write(String.valueOf(row.id()));
+        out.write(',');
+        out.write(String.valueOf(row.appointmentDate()));
+        out.write(',');
+        out.write(String.valueOf(row.startTime()));
+        out.write(',');
+        out.write(String.valueOf(row.endTime()));
+        out.write(',');
+        out.write(row.status().name());
+        out.write(',');
+        out.write(csv(row.staffName()));
+        out.write(',');
+        out.write(csv(row.serviceName()));
+        out.write(',');
+        out.write(csv(row.customerName()));
+        out.write(',');
+        out.write(phone(row.customerPhone()));
+        out.write(',');
+        out.write(csv(row.customerEmail()));
+        out.write(',');
+        out.write(row.totalPrice() != null ? row.totalPrice().toPlainString() : "");
+        out.write("\r\n");
+    }
+
+    // RFC 4180 + formula injection himoyasi: =, +, -, @, tab, CR bilan boshlangan qiymat oldiga ' qo'yiladi
+    static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        boolean quote = safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0
+                || safe.indexOf('\n') >= 0 || safe.indexOf('\r') >= 0;
+        return quote ? '"' + safe.replace("\"", "\"\"") + '"' : safe;
+    }
+
+    // Telefon raqami "+" bilan boshlanadi — normallashtirilgan raqam o'zgarishsiz, qolgani matn kabi himoyalanadi
+    static String phone(String value) {
+        return value != null && PHONE.matcher(value).matches() ? value : csv(value);
+    }
+}
@@ -8,14 +8,21 @@ import org.architect.multitenantappointmentsystem.dto.response.AppointmentCalend
 import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AppointmentStatisticsResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.DailyAvailableSlotsResponse;
+import org.architect.multitenantappointmentsystem.dto.response.NextAvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.StaffAppointmentStatisticsResponse;
 import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.service.export.AppointmentExportFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Appointment management service interface
@@ -71,11 +78,23 @@ public interface AppointmentService {
      */
     List<AvailableSlotResponse> getAvailableSlots(UUID tenantId, UUID staffId, LocalDate date, UUID serviceId);
 
+    /**
+     * Sana oralig'i uchun bo'sh vaqtlar (har bir kun alohida)
+     */
+    List<DailyAvailableSlotsResponse> getAvailableSlotsForRange(UUID tenantId, UUID staffId,
+                                                                LocalDate from, LocalDate to, UUID serviceId);
+
     /**
      * Vaqt bo'shligini tekshirish
      */
     boolean isSlotAvailable(UUID tenantId, UUID staffId, LocalDate date, LocalTime time, Integer duration);
 
+    /**
+     * Xizmat uchun barcha aktiv staff lar bo'yicha eng yaqin bo'sh vaqtlar
+     */
+    List<NextAvailableSlotResponse> findNextAvailableSlots(UUID tenantId, UUID serviceId,
+                                                           LocalDate from, LocalDate to, Integer limit);
+
     // ==================== QUERIES ====================
 
     /**
@@ -138,6 +157,14 @@ public interface AppointmentService {
      */
     List<AppointmentResponse> getAppointmentsByDateRange(UUID tenantId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Sana oralig'idagi appointmentlarni CSV/NDJSON qilib oqimga yozadi
+     *
+     * @return yozilgan qatorlar soni
+     */
+    long exportAppointments(UUID tenantId, LocalDate startDate, LocalDate endDate,
+                            AppointmentExportFormat format, Supplier<OutputStream> target);
+
     /**
      * Staff bo'yicha sana oralig'ida appointmentlar
      */
@@ -146,6 +173,17 @@ public interface AppointmentService {
 
     Page<AppointmentResponse> getStaffAppointments(UUID tenantId, UUID staffId,AppointmentStatus status,Pageable pageable);
 
+    /**
+     * Keyset pagination bilan appointmentlar — COUNT siz, sahifa raqamiga bog'liq bo'lmagan narxda
+     */
+    CursorPage<AppointmentResponse> scrollAppointments(UUID tenantId, Boolean activeOnly, String cursor, Integer size);
+
+    /**
+     * Staff appointmentlari keyset pagination bilan
+     */
+    CursorPage<AppointmentResponse> scrollStaffAppointments(
+            UUID tenantId, UUID staffId, AppointmentStatus status, String cursor, Integer size);
+
     // ==================== CALENDAR ====================
 
     /**
@@ -165,6 +203,11 @@ public interface AppointmentService {
      */
     AppointmentStatisticsResponse getStaffStatistics(UUID tenantId, UUID staffId);
 
+    /**
+     * Tenant ning barcha staff lari statistikasi (bitta query)
+     */
+    List<StaffAppointmentStatisticsResponse> getStaffStatisticsByTenant(UUID tenantId);
+
     /**
      * Sana oralig'i bo'yicha statistika
      */
@@ -3,8 +3,9 @@ package org.architect.multitenantappointmentsystem.service.interfaces;
 import org.architect.multitenantappointmentsystem.dto.*;
 import org.architect.multitenantappointmentsystem.dto.request.LoginRequest;
 import org.architect.multitenantappointmentsystem.dto.request.RegisterRequest;
-import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AuthResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.MyAppointmentResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserMeResponse;
 import org.architect.multitenantappointmentsystem.dto.response.UserResponse;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
@@ -12,14 +13,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.nio.file.AccessDeniedException;
-import java.util.List;
 import java.util.Optional;
 
 public interface AuthService {
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
     ResponseDto<UserMeResponse> getMe();
-    ResponseDto<List<AppointmentResponse>> getMyAppointments(String type);
+    ResponseDto<CursorPage<MyAppointmentResponse>> getMyAppointments(String type, String cursor, Integer size);
     ResponseDto<UserResponse> findUserByEmail(String email);
 
     static Optional<AuthUser> getCurrentUser() {
@@ -33,11 +33,12 @@ public interface ServiceService {
     List<ServiceResponse> getActiveServicesByTenant(UUID tenantId);
     List<ServiceResponse> getServicesByTenantOrdered(UUID tenantId, Boolean activeOnly);
     Page<ServiceResponse> getServicesByTenantPaginated(UUID tenantId, Boolean activeOnly, Pageable pageable);
-    List<ServiceResponse> searchServices(UUID tenantId, String keyword, Boolean activeOnly);
+    Page<ServiceResponse> searchServices(UUID tenantId, String keyword, Boolean activeOnly, Pageable pageable);
     List<ServiceResponse> getServicesByPriceRange(UUID tenantId, BigDecimal minPrice, BigDecimal maxPrice);
     List<ServiceResponse> getServicesByMaxDuration(UUID tenantId, Integer maxDuration);
     List<ServiceResponse> getServicesByStaff(UUID tenantId, UUID staffId);
     List<ServiceResponse> getPopularServices(UUID tenantId, Integer limit);
+    long getCatalogVersion(UUID tenantId);
 
     // ==================== STAFF ASSIGNMENT ====================
 
@@ -2,6 +2,7 @@ package org.architect.multitenantappointmentsystem.service.interfaces;
 
 import org.architect.multitenantappointmentsystem.dto.request.CreateTenantRequest;
 import org.architect.multitenantappointmentsystem.dto.response.TenantResponse;
+import org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse;
 import org.architect.multitenantappointmentsystem.dto.request.UpdateTenantRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,7 +15,7 @@ public interface TenantService {
     TenantResponse getTenantBySlug(String slug);
     TenantResponse updateTenant(UUID id, UpdateTenantRequest request);
     void deleteTenant(UUID id);
-    Page<TenantResponse> getAllTenants(Pageable pageable);
-    Page<TenantResponse> searchTenants(String q, Pageable pageable);
+    Page<TenantSummeryResponse> getAllTenants(Pageable pageable);
+    Page<TenantSummeryResponse> searchTenants(String q, Pageable pageable);
 }
 
@@ -0,0 +1,48 @@
+package org.architect.multitenantappointmentsystem.service.pagination;
+
+import org.architect.multitenantappointmentsystem.entity.Appointment;
+import org.architect.multitenantappointmentsystem.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Appointment ro'yxatlarida keyset pozitsiyasi — (appointment_date, start_time, id).
+ * Klientga shaffof bo'lmagan base64url token sifatida beriladi.
+ */
+public record AppointmentCursor(LocalDate date, LocalTime startTime, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static AppointmentCursor of(Appointment appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getId());
+    }
+
+    /**
+     * @return token bo'sh bo'lsa null (birinchi sahifa)
+     */
+    public static AppointmentCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            return new AppointmentCursor(
+                    LocalDate.parse(raw.substring(0, first)),
+                    LocalTime.parse(raw.substring(first + 1, second)),
+                    UUID.fromString(raw.substring(second + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Noto'g'ri cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = date.toString() + SEPARATOR + startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package org.architect.multitenantappointmentsystem.service.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.TransactionCallbacks;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.architect.multitenantappointmentsystem.entity.StaffSchedule;
+import org.architect.multitenantappointmentsystem.repository.StaffScheduleRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Staff haftalik jadvallari keshi. Jadval kam o'zgaradi, lekin har bir bron,
+ * ko'chirish va bo'sh vaqt so'rovida o'qiladi.
+ * createOrUpdateSchedule/updateSchedule/deleteSchedule evict() chaqiradi; boshqa node lar CacheInvalidationBus orqali xabardor qilinadi.
+ */
+@Component
+@RequiredArgsConstructor
+public class StaffScheduleCache {
+
+    private static final long MAX_STAFF = 100_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final StaffScheduleRepository scheduleRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<UUID, WeeklySchedule> schedules = Caffeine.newBuilder()
+            .maximumSize(MAX_STAFF)
+            .expireAfterWrite(TTL)
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheRegion.STAFF_SCHEDULE, schedules::invalidate, schedules::invalidateAll);
+    }
+
+    public WeeklySchedule get(UUID staffId) {
+        return schedules.get(staffId, id -> load(Set.of(id)).get(id));
+    }
+
+    /**
+     * Bir nechta staff jadvali — keshda yo'qlari bitta query bilan yuklanadi
+     */
+    public Map<UUID, WeeklySchedule> getAll(Collection<UUID> staffIds) {
+        return schedules.getAll(staffIds, this::load);
+    }
+
+    /**
+     * Darhol va commit dan keyin o'chiradi — parallel o'quvchi eski qiymatni qayta yozib qo'ymasligi uchun
+     */
+    public void evict(UUID staffId) {
+        if (staffId == null) {
+            return;
+        }
+        schedules.invalidate(staffId);
+        TransactionCallbacks.afterCommit(() -> schedules.invalidate(staffId));
+        invalidationBus.publish(CacheRegion.STAFF_SCHEDULE, staffId);
+    }
+
+    private Map<UUID, WeeklySchedule> load(Set<? extends UUID> staffIds) {
+        Map<UUID, List<StaffSchedule>> byStaff = new HashMap<>();
+        for (StaffSchedule schedule : scheduleRepository.findWithStaffByStaffIdIn(staffIds)) {
+            byStaff.computeIfAbsent(schedule.getStaff().getId(), id -> new ArrayList<>()).add(schedule);
+        }
+
+        // Jadvali yo'q staff ham keshlanadi — keyingi so'rovda DB ga bormaslik uchun
+        Map<UUID, WeeklySchedule> result = new HashMap<>();
+        for (UUID staffId : staffIds) {
+            List<StaffSchedule> staffSchedules = byStaff.getOrDefault(staffId, List.of());
+            String staffName = staffSchedules.isEmpty() ? null : staffSchedules.getFirst().getStaff().getDisplayName();
+            result.put(staffId, WeeklySchedule.of(staffId, staffName, staffSchedules));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package org.architect.multitenantappointmentsystem.service.schedule;
+
+import org.architect.multitenantappointmentsystem.dto.response.StaffScheduleResponse;
+import org.architect.multitenantappointmentsystem.entity.StaffSchedule;
+import org.architect.multitenantappointmentsystem.service.availability.DayIntervals;
+import org.architect.multitenantappointmentsystem.service.availability.SlotTables;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bitta staff ning haftalik jadvali — ISO hafta kuni (1..7) bo'yicha bitta int massiv.
+ * Har bir kun: boshlanish daqiqasi | tugash daqiqasi << 11 | ishlaydi flagi << 22, jadval yo'q bo'lsa -1.
+ * O'zgarmas; jadval endpointlari uchun javoblar ham bir marta tayyorlanadi.
+ */
+public final class WeeklySchedule {
+
+    private static final int NONE = -1;
+    private static final int MINUTE_BITS = 11;
+    private static final int MINUTE_MASK = (1 << MINUTE_BITS) - 1;
+    private static final int WORKING = 1 << (2 * MINUTE_BITS);
+
+    private final UUID staffId;
+    // [0] ishlatilmaydi
+    private final int[] days;
+    private final List<StaffScheduleResponse> responses;
+
+    private WeeklySchedule(UUID staffId, int[] days, List<StaffScheduleResponse> responses) {
+        this.staffId = staffId;
+        this.days = days;
+        this.responses = responses;
+    }
+
+    /**
+     * @param staffName  javoblar uchun (schedules bo'sh bo'lsa ishlatilmaydi)
+     * @param schedules  staff ning staff_schedules qatorlari
+     */
+    public static WeeklySchedule of(UUID staffId, String staffName, List<StaffSchedule> schedules) {
+        int[] days = new int[8];
+        Arrays.fill(days, NONE);
+        StaffScheduleResponse[] responses = new StaffScheduleResponse[schedules.size()];
+
+        for (int i = 0; i < responses.length; i++) {
+            StaffSchedule schedule = schedules.get(i);
+            boolean hasTimes = schedule.getStartTime() != null && schedule.getEndTime() != null;
+            int start = hasTimes ? DayIntervals.toMinutes(schedule.getStartTime()) : 0;
+            int end = hasTimes ? DayIntervals.toMinutes(schedule.getEndTime()) : 0;
+            // Vaqti ko'rsatilmagan kun ishlamaydigan kun hisoblanadi
+            boolean working = hasTimes && Boolean.TRUE.equals(schedule.getIsAvailable());
+            days[schedule.getDayOfWeek()] = start | end << MINUTE_BITS | (working ? WORKING : 0);
+
+            responses[i] = new StaffScheduleResponse(
+                    schedule.getId(),
+                    staffId,
+                    staffName,
+                    schedule.getDayOfWeek(),
+                    schedule.getDayName(),
+                    hasTimes ? SlotTables.display(start) : null,
+                    hasTimes ? SlotTables.display(end) : null,
+                    schedule.getIsAvailable());
+        }
+        return new WeeklySchedule(staffId, days, List.of(responses));
+    }
+
+    public UUID staffId() {
+        return staffId;
+    }
+
+    /**
+     * Shu kun uchun jadval qatori bormi
+     */
+    public boolean hasDay(int dayOfWeek) {
+        return days[dayOfWeek] != NONE;
+    }
+
+    /**
+     * Shu kuni ishlaydimi (jadval bor, aktiv va vaqtlari ko'rsatilgan)
+     */
+    public boolean isWorking(int dayOfWeek) {
+        int day = days[dayOfWeek];
+        return day != NONE && (day & WORKING) != 0;
+    }
+
+    public int start(int dayOfWeek) {
+        return days[dayOfWeek] & MINUTE_MASK;
+    }
+
+    public int end(int dayOfWeek) {
+        return days[dayOfWeek] >>> MINUTE_BITS & MINUTE_MASK;
+    }
+
+    /**
+     * StaffSchedule.isWorkingTime bilan bir xil: start <= minute <= end
+     */
+    public boolean isWorkingTime(int dayOfWeek, int minute) {
+        return isWorking(dayOfWeek) && minute >= start(dayOfWeek) && minute <= end(dayOfWeek);
+    }
+
+    public List<StaffScheduleResponse> responses() {
+        return responses;
+    }
+}
@@ -0,0 +1,37 @@
+package org.architect.multitenantappointmentsystem.service.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.architect.multitenantappointmentsystem.repository.TenantRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Har kecha barcha tenant lar rollup ini qayta quradi — inkremental yangilashdan tashqaridagi
+ * o'zgarishlarni (qo'lda SQL, eski node lar) tuzatadi. Har bir tenant alohida qisqa tranzaksiya.
+ * Cron "-" bo'lsa o'chiq.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyStatsRebuildJob {
+
+    private final TenantRepository tenantRepository;
+    private final DailyStatsRecorder dailyStatsRecorder;
+
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        int tenants = 0;
+        for (UUID tenantId : tenantRepository.findAllIds()) {
+            try {
+                dailyStatsRecorder.rebuild(tenantId);
+                tenants++;
+            } catch (RuntimeException e) {
+                log.warn("Tenant {} statistikasini qayta qurib bo'lmadi", tenantId, e);
+            }
+        }
+        log.info("Kunlik statistika qayta qurildi: {} ta tenant", tenants);
+    }
+}
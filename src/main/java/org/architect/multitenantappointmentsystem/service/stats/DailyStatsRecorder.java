@@ -0,0 +1,76 @@
+package org.architect.multitenantappointmentsystem.service.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.entity.Appointment;
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.repository.AppointmentDailyStatRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * appointment_daily_stats rollup ini yuritadi. Delta lar appointment o'zgarishi bilan bitta
+ * tranzaksiyada yoziladi — rollback bo'lsa rollup ham qaytadi, alohida sinxronlash kerak emas.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyStatsRecorder {
+
+    private final AppointmentDailyStatRepository dailyStatRepository;
+
+    /**
+     * Rollup qatori kaliti + summa — o'zgarishdan oldingi holatni saqlash uchun
+     */
+    public record Snapshot(UUID tenantId, LocalDate date, UUID staffId, UUID serviceId,
+                           AppointmentStatus status, BigDecimal revenue) {
+
+        public static Snapshot of(Appointment appointment) {
+            return new Snapshot(
+                    appointment.getTenant().getId(),
+                    appointment.getAppointmentDate(),
+                    appointment.getStaff().getId(),
+                    appointment.getEmployement().getId(),
+                    appointment.getStatus(),
+                    appointment.getTotalPrice() != null ? appointment.getTotalPrice() : BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Yangi appointment saqlandi
+     */
+    public void created(Appointment appointment) {
+        apply(Snapshot.of(appointment), 1);
+    }
+
+    /**
+     * Status/sana o'zgardi — eski qatordan ayiriladi, yangisiga qo'shiladi
+     */
+    public void changed(Snapshot before, Appointment appointment) {
+        Snapshot after = Snapshot.of(appointment);
+        if (after.equals(before)) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Tenant rollup ini appointments dan qayta quradi (backfill / drift tuzatish).
+     * Jadval lock i davomida inkremental yozuvlar kutib turadi, shuning uchun hech bir delta yo'qolmaydi
+     */
+    @Transactional
+    public int rebuild(UUID tenantId) {
+        dailyStatRepository.lockForRebuild();
+        dailyStatRepository.deleteByTenantId(tenantId);
+        return dailyStatRepository.rebuildForTenant(tenantId);
+    }
+
+    private void apply(Snapshot snapshot, int sign) {
+        BigDecimal revenue = sign > 0 ? snapshot.revenue() : snapshot.revenue().negate();
+        dailyStatRepository.applyDelta(snapshot.tenantId(), snapshot.date(), snapshot.staffId(),
+                snapshot.serviceId(), snapshot.status().name(), sign, revenue);
+    }
+}
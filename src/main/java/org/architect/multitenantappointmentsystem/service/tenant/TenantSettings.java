@@ -0,0 +1,66 @@
+package org.architect.multitenantappointmentsystem.service.tenant;
+
+import org.architect.multitenantappointmentsystem.dto.response.TenantResponse;
+import org.architect.multitenantappointmentsystem.entity.Tenant;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Tenant sozlamalarining o'zgarmas nusxasi — bron qilish yo'lida va ochiq tenant sahifasida
+ * Tenant entity ni yuklamasdan o'qish uchun
+ */
+public record TenantSettings(
+        UUID id,
+        String slug,
+        String businessType,
+        String organizationName,
+        String email,
+        String phone,
+        String address,
+        LocalTime workingHoursStart,
+        LocalTime workingHoursEnd,
+        Integer slotDuration,
+        Integer advanceBookingDays,
+        Boolean autoConfirmBooking,
+        String timezone,
+        Boolean isActive
+) {
+    public static TenantSettings from(Tenant tenant) {
+        return new TenantSettings(
+                tenant.getId(),
+                tenant.getSlug(),
+                tenant.getBusinessType() != null ? tenant.getBusinessType().name() : null,
+                tenant.getOrganizationName(),
+                tenant.getEmail(),
+                tenant.getPhone(),
+                tenant.getAddress(),
+                tenant.getWorkingHoursStart(),
+                tenant.getWorkingHoursEnd(),
+                tenant.getSlotDuration(),
+                tenant.getAdvanceBookingDays(),
+                tenant.getAutoConfirmBooking(),
+                tenant.getTimezone(),
+                tenant.getIsActive()
+        );
+    }
+
+    public TenantResponse toResponse() {
+        return new TenantResponse(
+                id,
+                slug,
+                businessType,
+                organizationName,
+                email,
+                phone,
+                address,
+                workingHoursStart,
+                workingHoursEnd,
+                slotDuration,
+                advanceBookingDays,
+                autoConfirmBooking,
+                timezone,
+                isActive
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package org.architect.multitenantappointmentsystem.service.tenant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.architect.multitenantappointmentsystem.common.TransactionCallbacks;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.architect.multitenantappointmentsystem.repository.TenantRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tenant sozlamalari keshi (id va slug bo'yicha).
+ * Sozlamalar oyiga bir necha marta o'zgaradi, lekin har bir bronda o'qiladi.
+ * updateTenant/deleteTenant evict() chaqiradi; boshqa node lar CacheInvalidationBus orqali xabardor qilinadi.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantSettingsCache {
+
+    private static final long MAX_TENANTS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final TenantRepository tenantRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<UUID, TenantSettings> byId = Caffeine.newBuilder()
+            .maximumSize(MAX_TENANTS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    // slug o'zgarmaydi (updatable = false), shuning uchun faqat id ga ko'rsatkich saqlanadi
+    private final Cache<String, UUID> slugToId = Caffeine.newBuilder()
+            .maximumSize(MAX_TENANTS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheRegion.TENANT, byId::invalidate, byId::invalidateAll);
+    }
+
+    public Optional<TenantSettings> get(UUID tenantId) {
+        TenantSettings cached = byId.getIfPresent(tenantId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return tenantRepository.findById(tenantId)
+                .map(TenantSettings::from)
+                .map(this::put);
+    }
+
+    public Optional<TenantSettings> getBySlug(String slug) {
+        UUID tenantId = slugToId.getIfPresent(slug);
+        if (tenantId != null) {
+            TenantSettings cached = byId.getIfPresent(tenantId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return tenantRepository.findBySlug(slug)
+                .map(TenantSettings::from)
+                .map(this::put);
+    }
+
+    /**
+     * Darhol va commit dan keyin o'chiradi — parallel o'quvchi eski qiymatni qayta yozib qo'ymasligi uchun
+     */
+    public void evict(UUID tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        byId.invalidate(tenantId);
+        TransactionCallbacks.afterCommit(() -> byId.invalidate(tenantId));
+        invalidationBus.publish(CacheRegion.TENANT, tenantId);
+    }
+
+    private TenantSettings put(TenantSettings settings) {
+        byId.put(settings.id(), settings);
+        slugToId.put(settings.slug(), settings.id());
+        return settings;
+    }
+}
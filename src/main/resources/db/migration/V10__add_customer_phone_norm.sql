@@ -0,0 +1,23 @@
+-- ============================================
+-- MIJOZ TELEFONI BO'YICHA QIDIRUV
+-- customer_phone_norm — E.164 (+998XXXXXXXXX) ko'rinishi, PhoneNumbers.normalize bilan bir xil qoidalar.
+-- customer_phone foydalanuvchi kiritgan ko'rinishda qoladi (ko'rsatish uchun).
+-- Indeks (tenant_id, customer_phone_norm, appointment_date) — qabulxona qidiruvlari va
+-- upcoming/past tartibini to'liq qoplaydi.
+-- ============================================
+
+ALTER TABLE appointments
+    ADD COLUMN IF NOT EXISTS customer_phone_norm VARCHAR(20);
+
+UPDATE appointments
+SET customer_phone_norm = CASE
+                              WHEN length(digits) = 9 THEN '+998' || digits
+                              ELSE '+' || digits
+    END
+FROM (SELECT id AS appointment_id, regexp_replace(customer_phone, '[^0-9]', '', 'g') AS digits
+      FROM appointments) normalized
+WHERE appointments.id = normalized.appointment_id
+  AND normalized.digits <> '';
+
+CREATE INDEX IF NOT EXISTS idx_appointments_tenant_phone
+    ON appointments (tenant_id, customer_phone_norm, appointment_date);
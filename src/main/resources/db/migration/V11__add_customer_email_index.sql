@@ -0,0 +1,9 @@
+-- ============================================
+-- MIJOZ EMAILI BO'YICHA "MENING BRONLARIM"
+-- Qidiruv lower(customer_email) bo'yicha (registrdan qat'i nazar), barcha tenantlar kesimida.
+-- Indeks (lower(customer_email), appointment_date, start_time, id) — keyset tartibini to'liq qoplaydi:
+-- upcoming oldinga, past orqaga skanerlanadi, sahifa narxi bronlar soniga bog'liq emas.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_appointments_customer_email_seek
+    ON appointments (lower(customer_email), appointment_date, start_time, id);
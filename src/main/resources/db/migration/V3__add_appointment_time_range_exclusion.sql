@@ -0,0 +1,64 @@
+-- ============================================
+-- DOUBLE BOOKING HIMOYASI
+-- Bitta staff uchun aktiv (PENDING/CONFIRMED) appointmentlar vaqti kesishmasligi
+-- DB darajasida kafolatlanadi — parallel so'rovlar ham o'tib keta olmaydi.
+-- Constraint qo'yishdan oldin mavjud kesishuvlar shu migratsiyaning o'zida hal qilinadi:
+-- birinchi yaratilgan bron qoladi, undan keyingi kesishgan bronlar CANCELLED qilinadi.
+-- ============================================
+
+-- staff_id (UUID) ni GiST indeksda "=" bilan ishlatish uchun
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- [start, end) oralig'i — application tomonidan yozilmaydi, avtomatik hisoblanadi.
+-- Yarim tundan o'tib ketgan eski yozuvlar (end_time < start_time) keyingi kunda tugaydi —
+-- aks holda tsrange xato beradi va migratsiya to'xtaydi
+ALTER TABLE appointments
+    ADD COLUMN IF NOT EXISTS time_range TSRANGE
+        GENERATED ALWAYS AS (
+            tsrange(appointment_date + start_time,
+                    appointment_date + end_time
+                        + CASE WHEN end_time < start_time THEN INTERVAL '1 day' ELSE INTERVAL '0' END,
+                    '[)')
+        ) STORED;
+
+-- Mavjud double booking larni tozalash. Faqat kesishuvi bor qatorlar (created_at, id) tartibida
+-- ko'rib chiqiladi: oldinroq yaratilgan va hali aktiv bron bilan kesishsa — bekor qilinadi.
+-- Zanjirda (A∩B, B∩C, A∩C yo'q) faqat B bekor bo'ladi, C saqlanadi.
+DO
+$$
+    DECLARE
+        candidate RECORD;
+    BEGIN
+        FOR candidate IN
+            SELECT a.id, a.staff_id, a.time_range, a.created_at
+            FROM appointments a
+            WHERE a.status IN ('PENDING', 'CONFIRMED')
+              AND EXISTS (SELECT 1
+                          FROM appointments b
+                          WHERE b.staff_id = a.staff_id
+                            AND b.id <> a.id
+                            AND b.status IN ('PENDING', 'CONFIRMED')
+                            AND b.time_range && a.time_range)
+            ORDER BY a.created_at, a.id
+            LOOP
+                UPDATE appointments
+                SET status        = 'CANCELLED',
+                    cancelled_at  = now(),
+                    updated_at    = now(),
+                    cancel_reason = 'Ikki marta bron: shu vaqtga oldinroq qilingan bron saqlandi'
+                WHERE id = candidate.id
+                  AND EXISTS (SELECT 1
+                              FROM appointments kept
+                              WHERE kept.staff_id = candidate.staff_id
+                                AND kept.id <> candidate.id
+                                AND kept.status IN ('PENDING', 'CONFIRMED')
+                                AND kept.time_range && candidate.time_range
+                                AND (kept.created_at, kept.id) < (candidate.created_at, candidate.id));
+            END LOOP;
+    END
+$$;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT ex_appointments_staff_time_range
+        EXCLUDE USING gist (staff_id WITH =, time_range WITH &&)
+        WHERE (status IN ('PENDING', 'CONFIRMED'));
@@ -0,0 +1,8 @@
+-- ============================================
+-- SERVICE KATALOG VERSIYASI
+-- Har bir service/staff biriktirish o'zgarishida oshiriladi.
+-- Katalog endpointlari uni ETag sifatida qaytaradi — barcha node lar uchun bir xil qiymat.
+-- ============================================
+
+ALTER TABLE tenants
+    ADD COLUMN IF NOT EXISTS catalog_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- ============================================
+-- KEYSET PAGINATION INDEKSLARI
+-- Ro'yxatlar (appointment_date, start_time, id) bo'yicha tartiblanadi va oxirgi qatordan davom etadi.
+-- Indeks shu tartibni to'liq qoplaydi — har qanday sahifa bir xil narxda o'qiladi.
+-- Eski (tenant_id, appointment_date) va (staff_id, appointment_date) indekslari yangilarining prefiksi.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_appointments_tenant_seek
+    ON appointments (tenant_id, appointment_date, start_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_staff_seek
+    ON appointments (staff_id, appointment_date, start_time, id);
+
+DROP INDEX IF EXISTS idx_appointments_tenant_date;
+DROP INDEX IF EXISTS idx_appointments_staff_date;
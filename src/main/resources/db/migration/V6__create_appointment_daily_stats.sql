@@ -0,0 +1,34 @@
+-- ============================================
+-- KUNLIK STATISTIKA ROLLUP JADVALI
+-- (tenant, sana, staff, service, status) bo'yicha appointment soni va summasi.
+-- Har bir status o'zgarishida inkremental yangilanadi (AppointmentServiceImpl → DailyStatsRecorder),
+-- dashboard lar appointments o'rniga shu jadvalni o'qiydi — oy/yil ko'rinishi O(kunlar).
+-- PK tenant_id + stat_date bilan boshlanadi — sana oralig'i bo'yicha o'qish indeks bilan.
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS appointment_daily_stats
+(
+    tenant_id         UUID           NOT NULL,
+    stat_date         DATE           NOT NULL,
+    staff_id          UUID           NOT NULL,
+    service_id        UUID           NOT NULL,
+    status            VARCHAR(20)    NOT NULL,
+    appointment_count BIGINT         NOT NULL DEFAULT 0,
+    revenue           DECIMAL(14, 2) NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_appointment_daily_stats PRIMARY KEY (tenant_id, stat_date, staff_id, service_id, status),
+    CONSTRAINT fk_daily_stats_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenants (id) ON DELETE CASCADE,
+    CONSTRAINT fk_daily_stats_staff FOREIGN KEY (staff_id)
+        REFERENCES staff (id) ON DELETE CASCADE,
+    CONSTRAINT fk_daily_stats_service FOREIGN KEY (service_id)
+        REFERENCES employements (id) ON DELETE CASCADE
+);
+
+-- Mavjud appointmentlardan backfill
+INSERT INTO appointment_daily_stats
+    (tenant_id, stat_date, staff_id, service_id, status, appointment_count, revenue)
+SELECT tenant_id, appointment_date, staff_id, service_id, status, COUNT(*), COALESCE(SUM(total_price), 0)
+FROM appointments
+GROUP BY tenant_id, appointment_date, staff_id, service_id, status
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,15 @@
+-- ============================================
+-- TENANT QIDIRUV INDEKSI (pg_trgm)
+-- Qidiruv nom + manzil + biznes turi bo'yicha substring (LIKE '%q%') — oddiy B-tree bunga yaramaydi.
+-- search_text — shu maydonlarning kichik harfli birikmasi, trigram GIN indeksi faqat aktiv tenantlar uchun.
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE tenants
+    ADD COLUMN IF NOT EXISTS search_text TEXT
+        GENERATED ALWAYS AS (lower(organization_name || ' ' || address || ' ' || business_type)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tenants_search_trgm
+    ON tenants USING GIN (search_text gin_trgm_ops)
+    WHERE is_active;
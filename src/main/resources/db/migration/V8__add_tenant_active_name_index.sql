@@ -0,0 +1,11 @@
+-- ============================================
+-- AKTIV TENANTLAR RO'YXATI INDEKSI
+-- Landing sahifa: WHERE is_active = true ORDER BY organization_name, id LIMIT n.
+-- Indeks filtr va tartibni to'liq qoplaydi — sort va nofaol qatorlarni o'tkazib yuborish yo'q.
+-- Eski (is_active) indeksi shu indeksning prefiksi.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_tenants_active_name
+    ON tenants (is_active, organization_name, id);
+
+DROP INDEX IF EXISTS idx_tenants_is_active;
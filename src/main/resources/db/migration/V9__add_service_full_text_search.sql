@@ -0,0 +1,38 @@
+-- ============================================
+-- SERVICE QIDIRUV (full-text)
+-- search_vector — nom (A vazn) va tavsif (B vazn) dan generated tsvector, GIN indeks bilan.
+-- uz_search_normalize: kirill → lotin, urg'u/diakritika (unaccent) va o‘/g‘ apostroflari olib tashlanadi,
+-- shuning uchun "Soch olish", "СОЧ ОЛИШ" va "sóch" bir xil topiladi.
+-- So'rov ham xuddi shu funksiyadan o'tadi (ServiceRepository.searchServices).
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE OR REPLACE FUNCTION uz_search_normalize(value TEXT) RETURNS TEXT
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+    STRICT
+AS
+$$
+SELECT translate(
+               public.unaccent('public.unaccent'::regdictionary,
+                               translate(
+                                       replace(replace(replace(replace(replace(replace(replace(lower(value),
+                                           'ё', 'yo'), 'ю', 'yu'), 'я', 'ya'), 'ц', 'ts'), 'ч', 'ch'), 'ш', 'sh'), 'щ', 'sh'),
+                                       'абвгдежзийклмнопрстуфхыэўқғҳъь',
+                                       'abvgdejziyklmnoprstufxieoqgh')),
+               '''`ʻʼ‘’', '')
+$$;
+
+ALTER TABLE employements
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', uz_search_normalize(name)), 'A') ||
+            setweight(to_tsvector('simple', uz_search_normalize(coalesce(description, ''))), 'B')
+            ) STORED;
+
+-- (tenant_id, search_vector) — tenant filtri ham indeks ichida, narx katalog hajmiga bog'liq emas
+CREATE INDEX IF NOT EXISTS idx_employements_search
+    ON employements USING GIN (tenant_id, search_vector);
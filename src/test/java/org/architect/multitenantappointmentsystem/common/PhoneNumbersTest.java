@@ -0,0 +1,25 @@
+package org.architect.multitenantappointmentsystem.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhoneNumbersTest {
+
+    @Test
+    @DisplayName("Turli yozilishlar bitta E.164 kalitga tushishi kerak")
+    void normalize_ShouldProduceE164() {
+        assertThat(PhoneNumbers.normalize("+998901234567")).isEqualTo("+998901234567");
+        assertThat(PhoneNumbers.normalize("998901234567")).isEqualTo("+998901234567");
+        assertThat(PhoneNumbers.normalize("+998 (90) 123-45-67")).isEqualTo("+998901234567");
+        assertThat(PhoneNumbers.normalize("90 123 45 67")).isEqualTo("+998901234567");
+    }
+
+    @Test
+    @DisplayName("Bo'sh qiymat uchun null qaytishi kerak")
+    void normalize_WhenBlank_ShouldReturnNull() {
+        assertThat(PhoneNumbers.normalize(null)).isNull();
+        assertThat(PhoneNumbers.normalize(" - ")).isNull();
+    }
+}
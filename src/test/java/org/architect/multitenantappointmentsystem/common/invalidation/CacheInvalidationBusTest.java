@@ -0,0 +1,109 @@
+package org.architect.multitenantappointmentsystem.common.invalidation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTest {
+
+    @Test
+    @DisplayName("dispatch() should evict the key in the matching region only")
+    void dispatch_ShouldEvictMatchingRegion() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(null, null);
+        List<UUID> schedules = new ArrayList<>();
+        List<UUID> principals = new ArrayList<>();
+        bus.subscribe(CacheRegion.STAFF_SCHEDULE, schedules::add, schedules::clear);
+        bus.subscribe(CacheRegion.PRINCIPAL, principals::add, principals::clear);
+        UUID staffId = UUID.randomUUID();
+
+        bus.dispatch("STAFF_SCHEDULE:" + staffId);
+
+        assertThat(schedules).containsExactly(staffId);
+        assertThat(principals).isEmpty();
+    }
+
+    @Test
+    @DisplayName("dispatch() should ignore malformed payloads")
+    void dispatch_ShouldIgnoreMalformedPayloads() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(null, null);
+        List<UUID> evicted = new ArrayList<>();
+        bus.subscribe(CacheRegion.TENANT, evicted::add, evicted::clear);
+
+        bus.dispatch("TENANT");
+        bus.dispatch("TENANT:not-a-uuid");
+        bus.dispatch("UNKNOWN:" + UUID.randomUUID());
+
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("dispatch() should skip messages published by this node")
+    void dispatch_ShouldSkipOwnMessages() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(null, null);
+        List<UUID> evicted = new ArrayList<>();
+        bus.subscribe(CacheRegion.BOOKING_INTERVALS, evicted::add, evicted::clear);
+        UUID own = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+
+        bus.dispatch("BOOKING_INTERVALS:" + own + ":" + bus.nodeId);
+        bus.dispatch("BOOKING_INTERVALS:" + remote + ":" + UUID.randomUUID());
+
+        assertThat(evicted).containsExactly(remote);
+    }
+
+    @Test
+    @DisplayName("publish() should not touch the DB while the bus is disabled")
+    void publish_WhenDisabled_ShouldBeNoOp() {
+        // JdbcTemplate null — chaqirilsa NPE bo'lardi
+        CacheInvalidationBus bus = new CacheInvalidationBus(null, null);
+
+        bus.publish(CacheRegion.TENANT, UUID.randomUUID());
+    }
+
+    // Lokal Postgres bilan: CACHE_BUS_POSTGRES_URL=jdbc:postgresql://localhost:5432/appointment_system
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CACHE_BUS_POSTGRES_URL", matches = ".+")
+    @DisplayName("publish() should reach the listener through Postgres NOTIFY")
+    void publish_ShouldReachListenerOverPostgres() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("CACHE_BUS_POSTGRES_URL"),
+                System.getenv().getOrDefault("CACHE_BUS_POSTGRES_USER", "postgres"),
+                System.getenv().getOrDefault("CACHE_BUS_POSTGRES_PASSWORD", "1234"));
+        CacheInvalidationBus bus = new CacheInvalidationBus(new JdbcTemplate(dataSource), dataSource);
+        ReflectionTestUtils.setField(bus, "configured", true);
+        // Node o'z xabarini o'tkazib yuboradi — xabarni boshqa node yuboradi
+        CacheInvalidationBus otherNode = new CacheInvalidationBus(new JdbcTemplate(dataSource), dataSource);
+        ReflectionTestUtils.setField(otherNode, "enabled", true);
+
+        UUID tenantId = UUID.randomUUID();
+        CountDownLatch received = new CountDownLatch(1);
+        bus.subscribe(CacheRegion.TENANT, key -> {
+            if (key.equals(tenantId)) {
+                received.countDown();
+            }
+        }, () -> { });
+
+        bus.init();
+        try {
+            // Listener LISTEN qilguncha yuborilgan xabar yo'qoladi — shuning uchun qayta yuboramiz
+            for (int attempt = 0; attempt < 25 && received.getCount() > 0; attempt++) {
+                otherNode.publish(CacheRegion.TENANT, tenantId);
+                received.await(200, TimeUnit.MILLISECONDS);
+            }
+            assertThat(received.getCount()).isZero();
+        } finally {
+            bus.stop();
+        }
+    }
+}
@@ -21,6 +21,8 @@ package org.architect.multitenantappointmentsystem.repository;
 // =====================================================================
 
 import org.architect.multitenantappointmentsystem.entity.*;
+import org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffStatusAggregate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -28,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -279,6 +282,188 @@ class AppointmentRepositoryTest {
         }
     }
 
+    // =====================================================================
+    //  scrollByTenantId() / scrollByTenantIdAfter()
+    //  Keyset pagination — oxirgi qatordan keyin davom etish, COUNT siz
+    // =====================================================================
+    @Nested
+    @DisplayName("scrollByTenantId() testlari")
+    class ScrollByTenantIdTests {
+
+        private Appointment appointment(LocalDate date, int hour, AppointmentStatus status) {
+            Appointment appointment = new Appointment();
+            appointment.setTenant(tenant);
+            appointment.setStaff(staff);
+            appointment.setEmployement(service);
+            appointment.setCustomerName("Mijoz " + hour);
+            appointment.setCustomerPhone("+998900000000");
+            appointment.setAppointmentDate(date);
+            appointment.setStartTime(LocalTime.of(hour, 0));
+            appointment.setEndTime(LocalTime.of(hour, 30));
+            appointment.setStatus(status);
+            appointment.setTotalPrice(new BigDecimal("50000"));
+            return entityManager.persistAndFlush(appointment);
+        }
+
+        @Test
+        @DisplayName("✅ Sahifalar yangi → eski tartibda, takrorlanmasdan davom etishi kerak")
+        void whenScrolling_ShouldContinueAfterLastRow() {
+            // setUp dagi bugungi 10:00 + yana 3 ta
+            appointment(today, 12, AppointmentStatus.CONFIRMED);
+            appointment(today.minusDays(1), 9, AppointmentStatus.COMPLETED);
+            appointment(today.plusDays(1), 8, AppointmentStatus.PENDING);
+            entityManager.clear();
+
+            List<Appointment> first = appointmentRepository.scrollByTenantId(
+                    tenant.getId(), false, PageRequest.of(0, 2));
+            Appointment last = first.get(first.size() - 1);
+            List<Appointment> second = appointmentRepository.scrollByTenantIdAfter(
+                    tenant.getId(), false, last.getAppointmentDate(), last.getStartTime(), last.getId(),
+                    PageRequest.of(0, 2));
+
+            assertThat(first).extracting(Appointment::getStartTime)
+                    .containsExactly(LocalTime.of(8, 0), LocalTime.of(12, 0));
+            assertThat(second).extracting(Appointment::getStartTime)
+                    .containsExactly(LocalTime.of(10, 0), LocalTime.of(9, 0));
+        }
+
+        @Test
+        @DisplayName("✅ activeOnly = true — faqat PENDING/CONFIRMED qaytishi kerak")
+        void whenActiveOnly_ShouldSkipFinishedAppointments() {
+            appointment(today.minusDays(1), 9, AppointmentStatus.COMPLETED);
+            entityManager.clear();
+
+            List<Appointment> result = appointmentRepository.scrollByTenantId(
+                    tenant.getId(), true, PageRequest.of(0, 10));
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getStatus()).isEqualTo(AppointmentStatus.PENDING);
+        }
+    }
+
+    // =====================================================================
+    //  Mijoz emaili bo'yicha "mening bronlarim" — upcoming va past ning ikki tarmog'i
+    // =====================================================================
+    @Nested
+    @DisplayName("Mijoz emaili bo'yicha bronlar testlari")
+    class CustomerEmailTests {
+
+        private void appointment(LocalDate date, int hour, AppointmentStatus status, String email) {
+            Appointment appointment = new Appointment();
+            appointment.setTenant(tenant);
+            appointment.setStaff(staff);
+            appointment.setEmployement(service);
+            appointment.setCustomerName("Mijoz " + hour);
+            appointment.setCustomerPhone("+998900000000");
+            appointment.setCustomerEmail(email);
+            appointment.setAppointmentDate(date);
+            appointment.setStartTime(LocalTime.of(hour, 0));
+            appointment.setEndTime(LocalTime.of(hour, 30));
+            appointment.setStatus(status);
+            appointment.setTotalPrice(new BigDecimal("50000"));
+            entityManager.persistAndFlush(appointment);
+        }
+
+        @Test
+        @DisplayName("✅ Upcoming — email registri farq qilmasligi, nomlar JOIN dan kelishi kerak")
+        void upcoming_ShouldMatchEmailCaseInsensitively() {
+            appointment(today.plusDays(1), 9, AppointmentStatus.CONFIRMED, "Mijoz@Test.com");
+            appointment(today.plusDays(1), 11, AppointmentStatus.CANCELLED, "mijoz@test.com");
+            appointment(today.plusDays(2), 9, AppointmentStatus.PENDING, "boshqa@test.com");
+            entityManager.clear();
+
+            List<CustomerAppointmentRow> result = appointmentRepository.findUpcomingByEmail(
+                    "mijoz@test.com", today, PageRequest.of(0, 10));
+
+            assertThat(result).singleElement().satisfies(row -> {
+                assertThat(row.startTime()).isEqualTo(LocalTime.of(9, 0));
+                assertThat(row.tenantName()).isEqualTo("Test Salon");
+                assertThat(row.staffId()).isEqualTo(staff.getId());
+                assertThat(row.staffName()).isEqualTo("Ali Karimov");
+                assertThat(row.serviceId()).isEqualTo(service.getId());
+                assertThat(row.serviceName()).isEqualTo("Soch olish");
+            });
+        }
+
+        @Test
+        @DisplayName("✅ Past — yopilgan kelajakdagi bronlar va o'tgan kunlar alohida tarmoqlarda")
+        void past_ShouldSplitIntoClosedAndPreviousDays() {
+            appointment(today.plusDays(1), 9, AppointmentStatus.CANCELLED, "mijoz@test.com");
+            appointment(today.plusDays(1), 11, AppointmentStatus.CONFIRMED, "mijoz@test.com");
+            appointment(today.minusDays(1), 9, AppointmentStatus.CONFIRMED, "mijoz@test.com");
+            appointment(today.minusDays(2), 9, AppointmentStatus.COMPLETED, "mijoz@test.com");
+            entityManager.clear();
+
+            List<CustomerAppointmentRow> closed = appointmentRepository.findClosedByEmailFrom(
+                    "mijoz@test.com", today, PageRequest.of(0, 10));
+            List<CustomerAppointmentRow> previous = appointmentRepository.findPastByEmailBefore(
+                    "mijoz@test.com", today, PageRequest.of(0, 1));
+            CustomerAppointmentRow last = previous.get(0);
+            List<CustomerAppointmentRow> rest = appointmentRepository.findPastByEmailBeforeAfter(
+                    "mijoz@test.com", today, last.appointmentDate(), last.startTime(), last.id(),
+                    PageRequest.of(0, 10));
+
+            assertThat(closed).extracting(CustomerAppointmentRow::status)
+                    .containsExactly(AppointmentStatus.CANCELLED);
+            assertThat(previous).extracting(CustomerAppointmentRow::appointmentDate)
+                    .containsExactly(today.minusDays(1));
+            assertThat(rest).extracting(CustomerAppointmentRow::appointmentDate)
+                    .containsExactly(today.minusDays(2));
+        }
+    }
+
+    // =====================================================================
+    //  aggregateByStatusForStaff() / aggregateByStaffAndStatusForTenant()
+    //  Statistika — entity yuklamasdan, GROUP BY bilan
+    // =====================================================================
+    @Nested
+    @DisplayName("Staff statistikasi aggregate testlari")
+    class StaffAggregateTests {
+
+        @Test
+        @DisplayName("✅ Status bo'yicha count/sum va ish kunlari soni qaytishi kerak")
+        void whenStaffHasAppointments_ShouldAggregateByStatus() {
+            Appointment completed = new Appointment();
+            completed.setTenant(tenant);
+            completed.setStaff(staff);
+            completed.setEmployement(service);
+            completed.setCustomerName("Vali");
+            completed.setCustomerPhone("+998900000000");
+            completed.setAppointmentDate(today.minusDays(1));
+            completed.setStartTime(LocalTime.of(11, 0));
+            completed.setEndTime(LocalTime.of(11, 30));
+            completed.setStatus(AppointmentStatus.COMPLETED);
+            completed.setTotalPrice(new BigDecimal("70000"));
+            entityManager.persistAndFlush(completed);
+            entityManager.clear();
+
+            List<StaffStatusAggregate> result = appointmentRepository.aggregateByStatusForStaff(staff.getId());
+
+            assertThat(result).hasSize(2);
+            assertThat(result).allSatisfy(row -> {
+                assertThat(row.staffId()).isEqualTo(staff.getId());
+                assertThat(row.count()).isEqualTo(1L);
+                assertThat(row.distinctDays()).isEqualTo(2L);
+            });
+            assertThat(result).filteredOn(row -> row.status() == AppointmentStatus.COMPLETED)
+                    .singleElement()
+                    .satisfies(row -> assertThat(row.revenue()).isEqualByComparingTo("70000"));
+        }
+
+        @Test
+        @DisplayName("✅ Tenant varianti — faqat shu tenant staff lari")
+        void whenTenantAggregate_ShouldGroupByStaff() {
+            List<StaffStatusAggregate> result =
+                    appointmentRepository.aggregateByStaffAndStatusForTenant(tenant.getId());
+
+            assertThat(result).singleElement().satisfies(row -> {
+                assertThat(row.staffId()).isEqualTo(staff.getId());
+                assertThat(row.status()).isEqualTo(AppointmentStatus.PENDING);
+                assertThat(row.distinctDays()).isEqualTo(1L);
+            });
+        }
+    }
+
     // =====================================================================
     //  findByIdAndTenantId()
     //  ID va tenantId bilan topish — boshqa tenantning ma'lumotini ko'ra olmaslik
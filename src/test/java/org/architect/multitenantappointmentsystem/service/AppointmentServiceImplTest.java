@@ -20,11 +20,34 @@ package org.architect.multitenantappointmentsystem.service;
 // =====================================================================
 
 import org.architect.multitenantappointmentsystem.dto.request.CreateAppointmentRequest;
+import org.architect.multitenantappointmentsystem.dto.response.AppointmentCalendarResponse;
 import org.architect.multitenantappointmentsystem.dto.response.AppointmentResponse;
+import org.architect.multitenantappointmentsystem.dto.response.AppointmentStatisticsResponse;
+import org.architect.multitenantappointmentsystem.dto.response.AvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.DailyAvailableSlotsResponse;
+import org.architect.multitenantappointmentsystem.dto.response.NextAvailableSlotResponse;
+import org.architect.multitenantappointmentsystem.dto.response.ServiceResponse;
 import org.architect.multitenantappointmentsystem.entity.*;
+import org.architect.multitenantappointmentsystem.exception.BadRequestException;
 import org.architect.multitenantappointmentsystem.exception.BusinessException;
 import org.architect.multitenantappointmentsystem.exception.NotFoundException;
 import org.architect.multitenantappointmentsystem.repository.*;
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.DailyStatusCount;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffBookedInterval;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffServiceLink;
+import org.architect.multitenantappointmentsystem.repository.projection.StatusTotals;
+import org.architect.multitenantappointmentsystem.service.availability.BookingCoordinator;
+import org.architect.multitenantappointmentsystem.service.availability.BookingIntervalIndex;
+import org.architect.multitenantappointmentsystem.service.availability.DayIntervals;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalog;
+import org.architect.multitenantappointmentsystem.service.catalog.ServiceCatalogCache;
+import org.architect.multitenantappointmentsystem.service.export.AppointmentExportWriter;
+import org.architect.multitenantappointmentsystem.service.schedule.StaffScheduleCache;
+import org.architect.multitenantappointmentsystem.service.schedule.WeeklySchedule;
+import org.architect.multitenantappointmentsystem.service.stats.DailyStatsRecorder;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettings;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettingsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,16 +56,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 // ── @ExtendWith: JUnit 5 ga Mockito ni ulaydi
@@ -55,8 +88,15 @@ class AppointmentServiceImplTest {
     @Mock private TenantRepository tenantRepository;
     @Mock private StaffRepository staffRepository;
     @Mock private ServiceRepository serviceRepository;
-    @Mock private StaffScheduleRepository staffScheduleRepository;
+    @Mock private StaffScheduleCache staffScheduleCache;
+    @Mock private ServiceCatalogCache serviceCatalogCache;
     @Mock private CurrentStaffService currentStaffService;
+    @Mock private BookingIntervalIndex bookingIntervalIndex;
+    @Mock private BookingCoordinator bookingCoordinator;
+    @Mock private TenantSettingsCache tenantSettingsCache;
+    @Mock private AppointmentExportWriter appointmentExportWriter;
+    @Mock private AppointmentDailyStatRepository dailyStatRepository;
+    @Mock private DailyStatsRecorder dailyStatsRecorder;
 
     // ── @InjectMocks: HAQIQIY klass. Yuqoridagi @Mock lar konstruktor orqali unga beriladi.
     @InjectMocks
@@ -100,6 +140,7 @@ class AppointmentServiceImplTest {
         service.setName("Soch olish");
         service.setDuration(30);                   // 30 daqiqa
         service.setPrice(new BigDecimal("50000")); // 50,000 so'm
+        service.setIsActive(true);
 
         // Jadval: dushanba 09:00-18:00
         schedule = new StaffSchedule();
@@ -109,6 +150,12 @@ class AppointmentServiceImplTest {
         schedule.setEndTime(LocalTime.of(18, 0));
     }
 
+    // Tenant katalogi nusxasi: staff va uning xizmati — slot metodlari staff/xizmatni shu yerdan oladi
+    private ServiceCatalog catalog() {
+        return ServiceCatalog.of(0, List.of(ServiceResponse.fromEntity(service)),
+                List.of(new StaffServiceLink(staffId, serviceId)));
+    }
+
     // =====================================================================
     //  @Nested — testlarni mantiqiy guruhlash uchun
     //  Har bir ichki klass bitta ssenariy guruhini ifodalaydi
@@ -125,11 +172,13 @@ class AppointmentServiceImplTest {
             // ── ARRANGE: mock larga "qanday javob bersin" deb o'rgatamiz
             //
             //    when(mock.metod(argument)).thenReturn(natija)
-            //    ya'ni: "agar tenantRepository.findById(tenantId) chaqirilsa,
-            //             Optional.of(tenant) ni qaytarsin"
+            //    ya'ni: "agar tenantSettingsCache.get(tenantId) chaqirilsa,
+            //             Optional.of(sozlamalar) ni qaytarsin"
 
-            when(tenantRepository.findById(tenantId))
-                    .thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId))
+                    .thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(tenantRepository.getReferenceById(tenantId))
+                    .thenReturn(tenant);
             when(staffRepository.findById(staffId))
                     .thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId))
@@ -139,17 +188,13 @@ class AppointmentServiceImplTest {
             LocalDate nextMonday = LocalDate.now().plusDays(
                     (8 - LocalDate.now().getDayOfWeek().getValue()) % 7 + 1
             );
-            when(staffScheduleRepository.findByStaffIdAndDayOfWeek(staffId, nextMonday.getDayOfWeek().getValue()))
-                    .thenReturn(Optional.of(schedule));
+            when(staffScheduleCache.get(staffId))
+                    .thenReturn(WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
 
-            // Vaqt nizosi yo'q
-            when(appointmentRepository.hasTimeConflict(any(), any(), any(), any()))
-                    .thenReturn(false);
-
-            // save() chaqirilganda appointment ni o'zini qaytarsin
-            when(appointmentRepository.save(any(Appointment.class)))
+            // saveAndFlush() chaqirilganda appointment ni o'zini qaytarsin (vaqt nizosi yo'q)
+            when(appointmentRepository.saveAndFlush(any(Appointment.class)))
                     .thenAnswer(invocation -> {
-                        // invocation.getArgument(0) — save() ga berilgan birinchi argument
+                        // invocation.getArgument(0) — saveAndFlush() ga berilgan birinchi argument
                         Appointment saved = invocation.getArgument(0);
                         saved.setId(UUID.randomUUID()); // DB kabi ID beradi
                         return saved;
@@ -180,10 +225,10 @@ class AppointmentServiceImplTest {
             assertThat(result.serviceId()).isEqualTo(serviceId);
             assertThat(result.status()).isEqualTo("PENDING"); // autoConfirm = false
 
-            // ── VERIFY: appointmentRepository.save() bir marta chaqirilganini tekshirish
+            // ── VERIFY: appointmentRepository.saveAndFlush() bir marta chaqirilganini tekshirish
             //    verify(mock, times(1)) — aynan 1 marta chaqirilishi kerak
             //    verify(mock, never())  — hech chaqirilmasligi kerak
-            verify(appointmentRepository, times(1)).save(any(Appointment.class));
+            verify(appointmentRepository, times(1)).saveAndFlush(any(Appointment.class));
         }
 
         // ── AutoConfirm yoqilganda CONFIRMED status berilishi kerak
@@ -197,13 +242,13 @@ class AppointmentServiceImplTest {
                     (8 - LocalDate.now().getDayOfWeek().getValue()) % 7 + 1
             );
 
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(tenantRepository.getReferenceById(tenantId)).thenReturn(tenant);
             when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
-            when(staffScheduleRepository.findByStaffIdAndDayOfWeek(staffId, nextMonday.getDayOfWeek().getValue()))
-                    .thenReturn(Optional.of(schedule));
-            when(appointmentRepository.hasTimeConflict(any(), any(), any(), any())).thenReturn(false);
-            when(appointmentRepository.save(any())).thenAnswer(inv -> {
+            when(staffScheduleCache.get(staffId))
+                    .thenReturn(WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
+            when(appointmentRepository.saveAndFlush(any())).thenAnswer(inv -> {
                 Appointment a = inv.getArgument(0);
                 a.setId(UUID.randomUUID());
                 return a;
@@ -229,7 +274,7 @@ class AppointmentServiceImplTest {
         void createAppointment_WhenTenantNotFound_ShouldThrowNotFoundException() {
 
             // findById bo'sh Optional qaytarsin → NotFoundException chiqadi
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.empty());
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.empty());
 
             CreateAppointmentRequest request = new CreateAppointmentRequest(
                     staffId, serviceId, "Test", "+998901234567",
@@ -242,7 +287,7 @@ class AppointmentServiceImplTest {
                     .hasMessage("Tenant topilmadi");         // message to'g'riligini tekshirish
 
             // Muhim: appointment HECH saqlanmasligi kerak
-            verify(appointmentRepository, never()).save(any());
+            verify(appointmentRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -254,7 +299,7 @@ class AppointmentServiceImplTest {
             otherTenant.setId(UUID.randomUUID()); // BOSHQA tenant ID
             staff.setTenant(otherTenant);         // ← staff boshqa tenantda
 
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
             when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
 
@@ -267,14 +312,14 @@ class AppointmentServiceImplTest {
                     .isInstanceOf(BusinessException.class)
                     .hasMessage("Staff boshqa tenantga tegishli");
 
-            verify(appointmentRepository, never()).save(any());
+            verify(appointmentRepository, never()).saveAndFlush(any());
         }
 
         @Test
         @DisplayName("❌ 30 kundan ortiq oldinga bron qilinsa BusinessException chiqishi kerak")
         void createAppointment_WhenDateTooFarInFuture_ShouldThrowBusinessException() {
 
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
             when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
 
@@ -290,7 +335,7 @@ class AppointmentServiceImplTest {
                     .isInstanceOf(BusinessException.class)
                     .hasMessageContaining("30 kun"); // xabar ichida "30 kun" bor
 
-            verify(appointmentRepository, never()).save(any());
+            verify(appointmentRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -303,11 +348,11 @@ class AppointmentServiceImplTest {
                     (8 - LocalDate.now().getDayOfWeek().getValue()) % 7 + 1
             );
 
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
             when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
-            when(staffScheduleRepository.findByStaffIdAndDayOfWeek(staffId, nextMonday.getDayOfWeek().getValue()))
-                    .thenReturn(Optional.of(schedule));
+            when(staffScheduleCache.get(staffId))
+                    .thenReturn(WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
 
             CreateAppointmentRequest request = new CreateAppointmentRequest(
                     staffId, serviceId, "Test", "+998901234567",
@@ -319,6 +364,28 @@ class AppointmentServiceImplTest {
                     .hasMessage("Staff shu kuni ishlamaydi");
         }
 
+        @Test
+        @DisplayName("❌ Xizmat faol bo'lmasa BusinessException chiqishi kerak")
+        void createAppointment_WhenServiceInactive_ShouldThrowBusinessException() {
+
+            service.setIsActive(false); // ← xizmat o'chirilgan
+
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+
+            CreateAppointmentRequest request = new CreateAppointmentRequest(
+                    staffId, serviceId, "Test", "+998901234567",
+                    null, LocalDate.now().plusDays(1), LocalTime.of(10, 0), null
+            );
+
+            assertThatThrownBy(() -> appointmentService.createAppointment(tenantId, request))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Xizmat faol emas");
+
+            verify(appointmentRepository, never()).saveAndFlush(any());
+        }
+
         @Test
         @DisplayName("❌ Vaqt band bo'lsa BusinessException chiqishi kerak")
         void createAppointment_WhenTimeConflict_ShouldThrowBusinessException() {
@@ -327,14 +394,16 @@ class AppointmentServiceImplTest {
                     (8 - LocalDate.now().getDayOfWeek().getValue()) % 7 + 1
             );
 
-            when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
             when(staffRepository.findById(staffId)).thenReturn(Optional.of(staff));
             when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
-            when(staffScheduleRepository.findByStaffIdAndDayOfWeek(staffId, nextMonday.getDayOfWeek().getValue()))
-                    .thenReturn(Optional.of(schedule));
+            when(staffScheduleCache.get(staffId))
+                    .thenReturn(WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
 
-            // ← Vaqt band!
-            when(appointmentRepository.hasTimeConflict(any(), any(), any(), any())).thenReturn(true);
+            // ← Vaqt band! DB exclusion constraint buzildi
+            when(appointmentRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                    "conflicting key value violates exclusion constraint",
+                    new SQLException("ex_appointments_staff_time_range", "23P01")));
 
             CreateAppointmentRequest request = new CreateAppointmentRequest(
                     staffId, serviceId, "Test", "+998901234567",
@@ -345,7 +414,7 @@ class AppointmentServiceImplTest {
                     .isInstanceOf(BusinessException.class)
                     .hasMessage("Bu vaqt allaqachon band");
 
-            verify(appointmentRepository, never()).save(any());
+            verify(bookingIntervalIndex, never()).booked(any());
         }
     }
 
@@ -398,4 +467,357 @@ class AppointmentServiceImplTest {
                     .hasMessageContaining("Appointment topilmadi");
         }
     }
+
+    // =====================================================================
+    //  DARS 3: getCalendarData() — DB dan faqat (sana, status) yig'indilari keladi
+    // =====================================================================
+    @Nested
+    @DisplayName("getCalendarData() testlari")
+    class GetCalendarDataTests {
+
+        @Test
+        @DisplayName("✅ Har bir kun qaytishi, bo'sh kunlar nol bilan to'ldirilishi kerak")
+        void getCalendarData_ShouldZeroFillMissingDays() {
+            LocalDate monday = LocalDate.of(2025, 3, 10);
+            LocalDate wednesday = monday.plusDays(2);
+
+            when(dailyStatRepository.sumByDateAndStatus(tenantId, monday, wednesday)).thenReturn(List.of(
+                    new DailyStatusCount(monday, AppointmentStatus.PENDING, 2L),
+                    new DailyStatusCount(monday, AppointmentStatus.CANCELLED, 1L),
+                    new DailyStatusCount(wednesday, AppointmentStatus.COMPLETED, 3L)));
+
+            List<AppointmentCalendarResponse> calendar =
+                    appointmentService.getCalendarData(tenantId, monday, wednesday);
+
+            assertThat(calendar).hasSize(3);
+            assertThat(calendar.get(0).totalAppointments()).isEqualTo(3);
+            assertThat(calendar.get(0).pendingAppointments()).isEqualTo(2);
+            assertThat(calendar.get(1).totalAppointments()).isZero();
+            assertThat(calendar.get(2).completedAppointments()).isEqualTo(3);
+            assertThat(calendar.get(0).dayName()).isNotBlank();
+        }
+    }
+
+    // ── Har kuni ishlaydigan jadval (7 kun, daysOff dan tashqari) — slot testlari uchun
+    private static WeeklySchedule everyDay(UUID staffId, String name, LocalTime start, LocalTime end,
+                                           DayOfWeek... daysOff) {
+        List<DayOfWeek> off = List.of(daysOff);
+        List<StaffSchedule> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            StaffSchedule daySchedule = new StaffSchedule();
+            daySchedule.setDayOfWeek(day.getValue());
+            daySchedule.setIsAvailable(!off.contains(day));
+            daySchedule.setStartTime(start);
+            daySchedule.setEndTime(end);
+            days.add(daySchedule);
+        }
+        return WeeklySchedule.of(staffId, name, days);
+    }
+
+    // =====================================================================
+    //  DARS 4: findNextAvailableSlots() — ochiq endpoint, bir nechta staff bo'yicha
+    // =====================================================================
+    @Nested
+    @DisplayName("findNextAvailableSlots() testlari")
+    class FindNextAvailableSlotsTests {
+
+        @Test
+        @DisplayName("❌ Xizmat faol bo'lmasa — bron yo'li bilan bir xil BusinessException")
+        void whenServiceInactive_ShouldThrowBusinessException() {
+            service.setIsActive(false);
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+
+            assertThatThrownBy(() -> appointmentService.findNextAvailableSlots(tenantId, serviceId, null, null, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Xizmat faol emas");
+
+            verify(staffRepository, never()).findActiveStaffByServiceIdAndTenantId(any(), any());
+        }
+
+        @Test
+        @DisplayName("✅ from bugundan oldin, to advanceBookingDays dan keyin bo'lsa — chegaralarga qisqarishi kerak")
+        void whenRangeOutsideBookingWindow_ShouldClampToTodayAndMaxDate() {
+            LocalDate today = LocalDate.now();
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+            when(staffRepository.findActiveStaffByServiceIdAndTenantId(serviceId, tenantId)).thenReturn(List.of(staff));
+            // Staff hech qachon ishlamaydi — butun oraliq ko'rib chiqiladi
+            schedule.setIsAvailable(false);
+            when(staffScheduleCache.getAll(List.of(staffId)))
+                    .thenReturn(Map.of(staffId, WeeklySchedule.of(staffId, "Ali Karimov", List.of(schedule))));
+            when(appointmentRepository.findBookedIntervalsInRange(anyList(), any(), any())).thenReturn(List.of());
+
+            List<NextAvailableSlotResponse> result = appointmentService.findNextAvailableSlots(
+                    tenantId, serviceId, today.minusDays(5), today.plusDays(100), 5);
+
+            assertThat(result).isEmpty();
+            verify(appointmentRepository).findBookedIntervalsInRange(List.of(staffId), today, today.plusDays(30));
+        }
+
+        @Test
+        @DisplayName("✅ Oraliq butunlay o'tmishda bo'lsa — DB ga bormasdan bo'sh ro'yxat")
+        void whenRangeInPast_ShouldReturnEmpty() {
+            LocalDate today = LocalDate.now();
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+
+            List<NextAvailableSlotResponse> result = appointmentService.findNextAvailableSlots(
+                    tenantId, serviceId, today.minusDays(10), today.minusDays(1), null);
+
+            assertThat(result).isEmpty();
+            verify(appointmentRepository, never()).findBookedIntervalsInRange(anyList(), any(), any());
+        }
+
+        @Test
+        @DisplayName("✅ limit 100 dan oshmasligi, bo'sh bo'lsa 10 bo'lishi kerak")
+        void whenLimitTooLarge_ShouldCapAtMaximum() {
+            LocalDate from = LocalDate.now().plusDays(1);
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+            when(staffRepository.findActiveStaffByServiceIdAndTenantId(serviceId, tenantId)).thenReturn(List.of(staff));
+            when(staffScheduleCache.getAll(List.of(staffId))).thenReturn(
+                    Map.of(staffId, everyDay(staffId, "Ali Karimov", LocalTime.of(9, 0), LocalTime.of(18, 0))));
+            when(appointmentRepository.findBookedIntervalsInRange(anyList(), any(), any())).thenReturn(List.of());
+
+            List<NextAvailableSlotResponse> capped =
+                    appointmentService.findNextAvailableSlots(tenantId, serviceId, from, null, 1_000);
+            List<NextAvailableSlotResponse> byDefault =
+                    appointmentService.findNextAvailableSlots(tenantId, serviceId, from, null, null);
+
+            assertThat(capped).hasSize(100);
+            assertThat(byDefault).hasSize(10);
+        }
+
+        @Test
+        @DisplayName("✅ Slotlar vaqt, keyin staff nomi bo'yicha tartiblanishi, band vaqtlar tashlanishi kerak")
+        void shouldOrderByTimeThenStaffName() {
+            LocalDate day = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            UUID boburId = UUID.randomUUID();
+            Staff bobur = new Staff();
+            bobur.setId(boburId);
+            bobur.setTenant(tenant);
+            bobur.setDisplayName("Bobur Aliyev");
+
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+            // Ro'yxat nom bo'yicha tartiblanmagan — tartibni servis beradi
+            when(staffRepository.findActiveStaffByServiceIdAndTenantId(serviceId, tenantId))
+                    .thenReturn(List.of(bobur, staff));
+            when(staffScheduleCache.getAll(List.of(boburId, staffId))).thenReturn(Map.of(
+                    boburId, everyDay(boburId, "Bobur Aliyev", LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                    staffId, everyDay(staffId, "Ali Karimov", LocalTime.of(9, 0), LocalTime.of(11, 0))));
+            // Ali 09:00-09:30 band
+            when(appointmentRepository.findBookedIntervalsInRange(List.of(boburId, staffId), day, day))
+                    .thenReturn(List.of(new StaffBookedInterval(staffId, day, UUID.randomUUID(),
+                            LocalTime.of(9, 0), LocalTime.of(9, 30))));
+
+            List<NextAvailableSlotResponse> result =
+                    appointmentService.findNextAvailableSlots(tenantId, serviceId, day, day, 5);
+
+            assertThat(result).extracting(NextAvailableSlotResponse::time, NextAvailableSlotResponse::staffName)
+                    .containsExactly(
+                            tuple(LocalTime.of(9, 0), "Bobur Aliyev"),
+                            tuple(LocalTime.of(9, 30), "Ali Karimov"),
+                            tuple(LocalTime.of(9, 30), "Bobur Aliyev"),
+                            tuple(LocalTime.of(10, 0), "Ali Karimov"),
+                            tuple(LocalTime.of(10, 0), "Bobur Aliyev"));
+        }
+
+        @Test
+        @DisplayName("✅ Bugun uchun o'tib ketgan daqiqalar qaytmasligi kerak")
+        void whenToday_ShouldSkipPastMinutes() {
+            LocalDate today = LocalDate.now();
+            service.setDuration(15);
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(serviceRepository.findByIdAndTenantId(serviceId, tenantId)).thenReturn(Optional.of(service));
+            when(staffRepository.findActiveStaffByServiceIdAndTenantId(serviceId, tenantId)).thenReturn(List.of(staff));
+            when(staffScheduleCache.getAll(List.of(staffId))).thenReturn(
+                    Map.of(staffId, everyDay(staffId, "Ali Karimov", LocalTime.MIDNIGHT, LocalTime.of(23, 59))));
+            when(appointmentRepository.findBookedIntervalsInRange(List.of(staffId), today, today)).thenReturn(List.of());
+
+            LocalDateTime before = LocalDateTime.now();
+            List<NextAvailableSlotResponse> result =
+                    appointmentService.findNextAvailableSlots(tenantId, serviceId, today, today, 100);
+
+            // Kun oxiriga yaqin (23:44 dan keyin) bo'sh bo'lishi mumkin — shart baribir bajariladi
+            assertThat(result).allSatisfy(slot -> {
+                assertThat(slot.date()).isEqualTo(today);
+                assertThat(slot.time()).isAfter(before.toLocalTime());
+            });
+        }
+    }
+
+    // =====================================================================
+    //  DARS 5: getAvailableSlotsForRange() — bir nechta kun bitta so'rovda
+    // =====================================================================
+    @Nested
+    @DisplayName("getAvailableSlotsForRange() testlari")
+    class GetAvailableSlotsForRangeTests {
+
+        @Test
+        @DisplayName("❌ from to dan keyin bo'lsa BadRequestException")
+        void whenFromAfterTo_ShouldThrowBadRequest() {
+            LocalDate day = LocalDate.now().plusDays(3);
+
+            assertThatThrownBy(() -> appointmentService.getAvailableSlotsForRange(
+                    tenantId, staffId, day, day.minusDays(1), null))
+                    .isInstanceOf(BadRequestException.class);
+
+            verifyNoInteractions(staffRepository, appointmentRepository);
+        }
+
+        @Test
+        @DisplayName("❌ Oraliq 62 kundan oshsa BadRequestException")
+        void whenRangeTooLong_ShouldThrowBadRequest() {
+            LocalDate from = LocalDate.now();
+
+            assertThatThrownBy(() -> appointmentService.getAvailableSlotsForRange(
+                    tenantId, staffId, from, from.plusDays(62), null))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("62");
+
+            verifyNoInteractions(staffRepository, appointmentRepository);
+        }
+
+        @Test
+        @DisplayName("✅ O'tgan kunlar va advanceBookingDays dan keyingi kunlar qaytmasligi kerak")
+        void whenRangeOutsideBookingWindow_ShouldClamp() {
+            LocalDate today = LocalDate.now();
+            tenant.setSlotDuration(30);
+            when(serviceCatalogCache.get(tenantId)).thenReturn(catalog());
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(staffScheduleCache.get(staffId)).thenReturn(
+                    WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
+            when(appointmentRepository.findBookedIntervalsInRange(List.of(staffId), today, today.plusDays(30)))
+                    .thenReturn(List.of());
+
+            List<DailyAvailableSlotsResponse> result = appointmentService.getAvailableSlotsForRange(
+                    tenantId, staffId, today.minusDays(3), today.plusDays(50), null);
+
+            assertThat(result).hasSize(31);
+            assertThat(result.get(0).date()).isEqualTo(today);
+            assertThat(result.get(result.size() - 1).date()).isEqualTo(today.plusDays(30));
+        }
+
+        @Test
+        @DisplayName("✅ Oraliq butunlay o'tmishda bo'lsa — bo'sh ro'yxat")
+        void whenRangeInPast_ShouldReturnEmpty() {
+            LocalDate today = LocalDate.now();
+            when(serviceCatalogCache.get(tenantId)).thenReturn(catalog());
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+
+            List<DailyAvailableSlotsResponse> result = appointmentService.getAvailableSlotsForRange(
+                    tenantId, staffId, today.minusDays(7), today.minusDays(1), null);
+
+            assertThat(result).isEmpty();
+            verify(appointmentRepository, never()).findBookedIntervalsInRange(anyList(), any(), any());
+        }
+
+        @Test
+        @DisplayName("✅ Ishlamaydigan kunlar bo'sh slotlar bilan qaytishi kerak")
+        void whenNonWorkingDays_ShouldReturnEmptySlots() {
+            // setUp dagi jadval — faqat dushanba
+            LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            tenant.setSlotDuration(30);
+            when(serviceCatalogCache.get(tenantId)).thenReturn(catalog());
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            when(staffScheduleCache.get(staffId)).thenReturn(
+                    WeeklySchedule.of(staffId, staff.getDisplayName(), List.of(schedule)));
+            when(appointmentRepository.findBookedIntervalsInRange(List.of(staffId), monday, monday.plusDays(6)))
+                    .thenReturn(List.of());
+
+            List<DailyAvailableSlotsResponse> result = appointmentService.getAvailableSlotsForRange(
+                    tenantId, staffId, monday, monday.plusDays(6), null);
+
+            assertThat(result).hasSize(7);
+            assertThat(result.get(0).slots()).hasSize(18); // 09:00-18:00, 30 daqiqa
+            assertThat(result.subList(1, 7)).allSatisfy(day -> assertThat(day.slots()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("✅ Har bir kun getAvailableSlots() natijasi bilan bir xil bo'lishi kerak")
+        void shouldMatchPerDaySlots() {
+            LocalDate from = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            LocalDate to = from.plusDays(6);
+            UUID appointmentId = UUID.randomUUID();
+            when(serviceCatalogCache.get(tenantId)).thenReturn(catalog());
+            when(tenantSettingsCache.get(tenantId)).thenReturn(Optional.of(TenantSettings.from(tenant)));
+            // Har kuni 09:00-12:00, faqat shanba dam olish kuni
+            WeeklySchedule weekly = everyDay(staffId, staff.getDisplayName(),
+                    LocalTime.of(9, 0), LocalTime.of(12, 0), DayOfWeek.SATURDAY);
+            when(staffScheduleCache.get(staffId)).thenReturn(weekly);
+            // from kuni 10:00-10:45 band
+            when(appointmentRepository.findBookedIntervalsInRange(List.of(staffId), from, to))
+                    .thenReturn(List.of(new StaffBookedInterval(staffId, from, appointmentId,
+                            LocalTime.of(10, 0), LocalTime.of(10, 45))));
+            // getAvailableSlots() ishlamaydigan kunda band vaqtlarni so'ramaydi
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                    continue;
+                }
+                List<BookedInterval> booked = date.equals(from)
+                        ? List.of(new BookedInterval(appointmentId, LocalTime.of(10, 0), LocalTime.of(10, 45)))
+                        : List.of();
+                when(bookingIntervalIndex.intervals(staffId, date)).thenReturn(DayIntervals.of(booked));
+            }
+
+            List<DailyAvailableSlotsResponse> range =
+                    appointmentService.getAvailableSlotsForRange(tenantId, staffId, from, to, serviceId);
+
+            assertThat(range).hasSize(7);
+            for (DailyAvailableSlotsResponse day : range) {
+                List<AvailableSlotResponse> perDay =
+                        appointmentService.getAvailableSlots(tenantId, staffId, day.date(), serviceId);
+                assertThat(day.slots()).as(day.date().toString()).isEqualTo(perDay);
+            }
+            assertThat(range.get(0).slots()).extracting(AvailableSlotResponse::available)
+                    .containsExactly(true, true, false, false, true, true);
+            // Staff va xizmat katalog nusxasidan olinadi — DB ga borilmaydi
+            verifyNoInteractions(staffRepository, serviceRepository);
+        }
+
+        @Test
+        @DisplayName("❌ Staff katalogda ham, DB da ham bo'lmasa NotFoundException")
+        void whenStaffNotInTenant_ShouldThrowNotFound() {
+            UUID otherStaffId = UUID.randomUUID();
+            LocalDate day = LocalDate.now().plusDays(1);
+            when(serviceCatalogCache.get(tenantId)).thenReturn(catalog());
+            when(staffRepository.existsByIdAndTenantId(otherStaffId, tenantId)).thenReturn(false);
+
+            assertThatThrownBy(() -> appointmentService.getAvailableSlotsForRange(
+                    tenantId, otherStaffId, day, day, null))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessage("Staff topilmadi");
+
+            verifyNoInteractions(appointmentRepository);
+        }
+    }
+
+    // =====================================================================
+    //  DARS 6: getStatistics() — rollup dan status bo'yicha jami keladi
+    // =====================================================================
+    @Nested
+    @DisplayName("getStatistics() testlari")
+    class GetStatisticsTests {
+
+        @Test
+        @DisplayName("✅ Status jamilaridan son, summa va foizlar hisoblanishi kerak")
+        void getStatistics_ShouldBuildFromStatusTotals() {
+            when(dailyStatRepository.sumByStatusForTenant(tenantId)).thenReturn(List.of(
+                    new StatusTotals(AppointmentStatus.PENDING, 2L, new BigDecimal("100000")),
+                    new StatusTotals(AppointmentStatus.COMPLETED, 6L, new BigDecimal("300000")),
+                    new StatusTotals(AppointmentStatus.CANCELLED, 2L, null)));
+            when(dailyStatRepository.countDaysForTenant(tenantId)).thenReturn(5L);
+
+            AppointmentStatisticsResponse stats = appointmentService.getStatistics(tenantId);
+
+            assertThat(stats.totalAppointments()).isEqualTo(10);
+            assertThat(stats.pendingRevenue()).isEqualByComparingTo("100000");
+            assertThat(stats.completedRevenue()).isEqualByComparingTo("300000");
+            assertThat(stats.averageAppointmentsPerDay()).isEqualTo(2.0);
+            assertThat(stats.completionRate()).isEqualTo(75.0);   // 6 / (10 - 2)
+            assertThat(stats.cancellationRate()).isEqualTo(20.0);
+        }
+    }
 }
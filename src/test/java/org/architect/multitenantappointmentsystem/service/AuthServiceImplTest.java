@@ -1,25 +1,45 @@
 package org.architect.multitenantappointmentsystem.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.architect.multitenantappointmentsystem.dto.request.RegisterRequest;
+import org.architect.multitenantappointmentsystem.dto.ResponseDto;
 import org.architect.multitenantappointmentsystem.dto.response.AuthResponse;
+import org.architect.multitenantappointmentsystem.dto.response.CursorPage;
+import org.architect.multitenantappointmentsystem.dto.response.MyAppointmentResponse;
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
 import org.architect.multitenantappointmentsystem.entity.User;
 import org.architect.multitenantappointmentsystem.exception.BusinessException;
+import org.architect.multitenantappointmentsystem.repository.AppointmentRepository;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.CustomerAppointmentRow;
+import org.architect.multitenantappointmentsystem.security.AuthUser;
 import org.architect.multitenantappointmentsystem.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,10 +52,17 @@ class AuthServiceImplTest {
     private JwtService jwtService;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private AppointmentRepository appointmentRepository;
 
     @InjectMocks
     private AuthServiceImpl authService;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("register() should save user and return token when email is new")
     void register_ShouldSaveUser_WhenEmailIsNew() {
@@ -76,5 +103,73 @@ class AuthServiceImplTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("getMyAppointments(past) yopilgan bronlar tarmog'i tugagach o'tgan kunlardan davom etishi kerak")
+    void getMyAppointments_Past_ShouldContinueIntoPreviousDays() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("Mijoz@Test.com");
+        AuthUser authUser = AuthUser.create(user, List.of(), List.of(), List.of(), List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(authUser, null, List.of()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        LocalDate today = LocalDate.now();
+        CustomerAppointmentRow cancelled = row(today.plusDays(1), AppointmentStatus.CANCELLED);
+        CustomerAppointmentRow yesterday = row(today.minusDays(1), AppointmentStatus.COMPLETED);
+        CustomerAppointmentRow older = row(today.minusDays(2), AppointmentStatus.NO_SHOW);
+        // size = 2 → har bir tarmoqdan jami 3 qator (bittasi hasNext uchun)
+        when(appointmentRepository.findClosedByEmailFrom(eq("mijoz@test.com"), eq(today), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(cancelled));
+        when(appointmentRepository.findPastByEmailBefore(eq("mijoz@test.com"), eq(today), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(yesterday, older));
+
+        ResponseDto<CursorPage<MyAppointmentResponse>> response = authService.getMyAppointments("past", null, 2);
+
+        CursorPage<MyAppointmentResponse> page = response.getData();
+        assertThat(page.items()).extracting(MyAppointmentResponse::id)
+                .containsExactly(cancelled.id(), yesterday.id());
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.nextCursor()).isNotBlank();
+    }
 
+    @Test
+    @DisplayName("getMyAppointments() javobi profile sahifasi kutgan ko'rinishda bo'lishi kerak")
+    void getMyAppointments_ShouldExposeFieldsUsedByProfilePage() throws Exception {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("mijoz@test.com");
+        AuthUser authUser = AuthUser.create(user, List.of(), List.of(), List.of(), List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(authUser, null, List.of()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        LocalDate today = LocalDate.now();
+        CustomerAppointmentRow upcoming = row(today.plusDays(1), AppointmentStatus.CONFIRMED);
+        when(appointmentRepository.findUpcomingByEmail(eq("mijoz@test.com"), eq(today), eq(PageRequest.of(0, 21))))
+                .thenReturn(List.of(upcoming));
+
+        ResponseDto<CursorPage<MyAppointmentResponse>> response = authService.getMyAppointments("upcoming", null, null);
+
+        // profile.html: result.data.items / nextCursor / hasNext, qayta rejalash uchun staffId va serviceId
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        JsonNode json = mapper.valueToTree(response.getData());
+        assertThat(json.get("hasNext").asBoolean()).isFalse();
+        assertThat(json.get("nextCursor").isNull()).isTrue();
+        JsonNode item = json.get("items").get(0);
+        assertThat(item.get("id").asText()).isEqualTo(upcoming.id().toString());
+        assertThat(item.get("tenantId").asText()).isEqualTo(upcoming.tenantId().toString());
+        assertThat(item.get("staffId").asText()).isEqualTo(upcoming.staffId().toString());
+        assertThat(item.get("serviceId").asText()).isEqualTo(upcoming.serviceId().toString());
+        assertThat(item.get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(item.get("startTime").asText()).startsWith("10:00");
+        assertThat(item.get("formattedPrice").asText()).isNotBlank();
+    }
+
+    private static CustomerAppointmentRow row(LocalDate date, AppointmentStatus status) {
+        return new CustomerAppointmentRow(UUID.randomUUID(), UUID.randomUUID(), "Test Salon", "test-salon",
+                UUID.randomUUID(), "Ali Karimov", UUID.randomUUID(), "Soch olish", date, LocalTime.of(10, 0), LocalTime.of(10, 30),
+                status, new BigDecimal("50000"), null);
+    }
 }
@@ -0,0 +1,141 @@
+package org.architect.multitenantappointmentsystem.service;
+
+import org.architect.multitenantappointmentsystem.dto.response.ServiceResponse;
+import org.architect.multitenantappointmentsystem.entity.Employement;
+import org.architect.multitenantappointmentsystem.entity.Tenant;
+import org.architect.multitenantappointmentsystem.repository.ServiceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceServiceImplTest {
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @InjectMocks
+    private ServiceServiceImpl serviceService;
+
+    // =====================================================================
+    //  toPrefixQuery() — foydalanuvchi matnidan xavfsiz tsquery yasash.
+    //  Operator belgisi so'rovga tushib qolsa, to_tsquery sintaksis xatosi → 500
+    // =====================================================================
+    @Nested
+    @DisplayName("toPrefixQuery() testlari")
+    class ToPrefixQueryTests {
+
+        @Test
+        @DisplayName("✅ Har bir so'z prefiks bo'lib, & bilan birlashishi kerak")
+        void whenWords_ShouldJoinPrefixes() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("soch oli")).isEqualTo("soch:* & oli:*");
+        }
+
+        @Test
+        @DisplayName("✅ tsquery operatorlari (&, |, !, :, ( ) so'rovga tushmasligi kerak")
+        void whenOperators_ShouldTreatThemAsSeparators() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("soch & oli")).isEqualTo("soch:* & oli:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("soch|oli")).isEqualTo("soch:* & oli:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("!soch")).isEqualTo("soch:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("soch:*")).isEqualTo("soch:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("(soch) oli)")).isEqualTo("soch:* & oli:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("& | ! : ( ) <-> *")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("✅ Faqat apostrof yoki ъ/ь dan iborat so'zlar tashlab yuborilishi kerak")
+        void whenTokenBecomesEmptyAfterNormalization_ShouldSkipIt() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("' ‘’ ` ʻ")).isEmpty();
+            assertThat(ServiceServiceImpl.toPrefixQuery("ъ ь ЪЬ")).isEmpty();
+            assertThat(ServiceServiceImpl.toPrefixQuery("'' soch ъ")).isEqualTo("soch:*");
+        }
+
+        @Test
+        @DisplayName("✅ So'z ichidagi apostroflar saqlanishi kerak (DB da normalizatsiya olib tashlaydi)")
+        void whenApostropheInsideWord_ShouldKeepIt() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("o'g'il")).isEqualTo("o'g'il:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("oʻgʻil")).isEqualTo("oʻgʻil:*");
+        }
+
+        @Test
+        @DisplayName("✅ Kirill matni o'zgarishsiz qolishi kerak (transliteratsiya DB da)")
+        void whenCyrillic_ShouldKeepTokens() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("СОЧ олиш")).isEqualTo("СОЧ:* & олиш:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("объём")).isEqualTo("объём:*");
+        }
+
+        @Test
+        @DisplayName("✅ unaccent qavsga aylantiradigan raqam belgilari ajratuvchi bo'lishi kerak")
+        void whenNonDecimalNumberSymbols_ShouldSkipThem() {
+            assertThat(ServiceServiceImpl.toPrefixQuery("⑴ soch ½")).isEqualTo("soch:*");
+            assertThat(ServiceServiceImpl.toPrefixQuery("2024")).isEqualTo("2024:*");
+        }
+
+        @Test
+        @DisplayName("✅ null yoki bo'sh matn — bo'sh so'rov")
+        void whenBlank_ShouldReturnEmpty() {
+            assertThat(ServiceServiceImpl.toPrefixQuery(null)).isEmpty();
+            assertThat(ServiceServiceImpl.toPrefixQuery("")).isEmpty();
+            assertThat(ServiceServiceImpl.toPrefixQuery("   ")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("searchServices() testlari")
+    class SearchServicesTests {
+
+        private final UUID tenantId = UUID.randomUUID();
+        private final Pageable pageable = PageRequest.of(0, 10);
+
+        @Test
+        @DisplayName("✅ Bo'sh keyword — DB ga bormasdan Page.empty qaytishi kerak")
+        void whenBlankKeyword_ShouldReturnEmptyPage() {
+            Page<ServiceResponse> result = serviceService.searchServices(tenantId, " !& ", null, pageable);
+
+            assertThat(result.getContent()).isEmpty();
+            assertThat(result.getTotalElements()).isZero();
+            assertThat(result.getPageable()).isEqualTo(pageable);
+            verify(serviceRepository, never()).searchServices(any(), anyString(), anyBoolean(), any());
+        }
+
+        @Test
+        @DisplayName("✅ Prefiks so'rov bilan qidirib, natijani ServiceResponse ga o'girishi kerak")
+        void whenKeyword_ShouldSearchWithPrefixQuery() {
+            Tenant tenant = new Tenant();
+            tenant.setId(tenantId);
+            tenant.setOrganizationName("Test Salon");
+            Employement haircut = new Employement();
+            haircut.setId(UUID.randomUUID());
+            haircut.setTenant(tenant);
+            haircut.setName("Soch olish");
+            haircut.setDuration(30);
+            haircut.setPrice(new BigDecimal("50000"));
+            haircut.setIsActive(true);
+            when(serviceRepository.searchServices(tenantId, "soch:* & oli:*", true, pageable))
+                    .thenReturn(new PageImpl<>(List.of(haircut), pageable, 1));
+
+            Page<ServiceResponse> result = serviceService.searchServices(tenantId, "soch, oli", null, pageable);
+
+            assertThat(result.getContent()).extracting(ServiceResponse::name).containsExactly("Soch olish");
+            assertThat(result.getTotalElements()).isEqualTo(1);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.architect.multitenantappointmentsystem.service;
 
 import org.architect.multitenantappointmentsystem.dto.request.CreateTenantRequest;
 import org.architect.multitenantappointmentsystem.dto.response.TenantResponse;
+import org.architect.multitenantappointmentsystem.dto.response.TenantSummeryResponse;
 import org.architect.multitenantappointmentsystem.entity.BusinessType;
 import org.architect.multitenantappointmentsystem.entity.Tenant;
 import org.architect.multitenantappointmentsystem.entity.User;
@@ -10,7 +11,9 @@ import org.architect.multitenantappointmentsystem.repository.StaffRepository;
 import org.architect.multitenantappointmentsystem.repository.TenantRepository;
 import org.architect.multitenantappointmentsystem.repository.UserRepository;
 import org.architect.multitenantappointmentsystem.security.AuthUser;
+import org.architect.multitenantappointmentsystem.security.PrincipalCache;
 import org.architect.multitenantappointmentsystem.service.interfaces.AuthService;
+import org.architect.multitenantappointmentsystem.service.tenant.TenantSettingsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +22,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.time.LocalTime;
@@ -38,6 +44,8 @@ class TenantServiceImplTest {
     @Mock private TenantRepository tenantRepository;
     @Mock private UserRepository userRepository;
     @Mock private StaffRepository staffRepository;
+    @Mock private PrincipalCache principalCache;
+    @Mock private TenantSettingsCache tenantSettingsCache;
 
     @InjectMocks
     private TenantServiceImpl tenantService;
@@ -169,4 +177,16 @@ class TenantServiceImplTest {
             verify(staffRepository, never()).save(any());
         }
     }
+
+    @Test
+    @DisplayName("✅ Qidiruv: so'rov kichik harfga o'tadi, % va _ wildcard sifatida ishlamaydi")
+    void searchTenants_ShouldEscapeLikeWildcards() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(tenantRepository.searchActiveTenants("50% off_", "%50\\% off\\_%", pageable))
+                .thenReturn(Page.empty(pageable));
+
+        Page<TenantSummeryResponse> result = tenantService.searchTenants("  50% OFF_ ", pageable);
+
+        assertThat(result).isEmpty();
+    }
 }
@@ -0,0 +1,86 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheInvalidationBus;
+import org.architect.multitenantappointmentsystem.common.invalidation.CacheRegion;
+import org.architect.multitenantappointmentsystem.entity.Appointment;
+import org.architect.multitenantappointmentsystem.entity.Staff;
+import org.architect.multitenantappointmentsystem.repository.AppointmentRepository;
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock private AppointmentRepository appointmentRepository;
+    @Mock private CacheInvalidationBus invalidationBus;
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    @DisplayName("booked() keshdagi kunni yangilaydi va boshqa node larga staffId ni yuboradi")
+    void booked_ShouldUpdateDayAndPublish() {
+        UUID staffId = UUID.randomUUID();
+        when(appointmentRepository.findBookedIntervals(staffId, DAY)).thenReturn(List.of());
+        assertThat(index.isFree(staffId, DAY, LocalTime.of(10, 0), LocalTime.of(10, 30))).isTrue();
+
+        index.booked(appointment(staffId, LocalTime.of(10, 0), LocalTime.of(10, 30)));
+
+        // Tranzaksiya yo'q — afterCommit darhol bajariladi, DB ga qayta borilmaydi
+        assertThat(index.isFree(staffId, DAY, LocalTime.of(10, 0), LocalTime.of(10, 30))).isFalse();
+        verify(appointmentRepository, times(1)).findBookedIntervals(staffId, DAY);
+        verify(invalidationBus).publish(CacheRegion.BOOKING_INTERVALS, staffId);
+    }
+
+    @Test
+    @DisplayName("evictStaff() faqat shu staff ning kunlarini o'chiradi")
+    void evictStaff_ShouldDropOnlyThatStaff() {
+        UUID changed = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        List<BookedInterval> none = List.of();
+        when(appointmentRepository.findBookedIntervals(changed, DAY)).thenReturn(none);
+        when(appointmentRepository.findBookedIntervals(changed, DAY.plusDays(1))).thenReturn(none);
+        when(appointmentRepository.findBookedIntervals(untouched, DAY)).thenReturn(none);
+        index.intervals(changed, DAY);
+        index.intervals(changed, DAY.plusDays(1));
+        index.intervals(untouched, DAY);
+
+        index.evictStaff(changed);
+        index.intervals(changed, DAY);
+        index.intervals(changed, DAY.plusDays(1));
+        index.intervals(untouched, DAY);
+
+        verify(appointmentRepository, times(2)).findBookedIntervals(changed, DAY);
+        verify(appointmentRepository, times(2)).findBookedIntervals(changed, DAY.plusDays(1));
+        verify(appointmentRepository, times(1)).findBookedIntervals(untouched, DAY);
+    }
+
+    private static Appointment appointment(UUID staffId, LocalTime start, LocalTime end) {
+        Staff staff = new Staff();
+        staff.setId(staffId);
+        Appointment appointment = new Appointment();
+        appointment.setId(UUID.randomUUID());
+        appointment.setStaff(staff);
+        appointment.setAppointmentDate(DAY);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        return appointment;
+    }
+}
@@ -0,0 +1,88 @@
+package org.architect.multitenantappointmentsystem.service.availability;
+
+import org.architect.multitenantappointmentsystem.repository.projection.BookedInterval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayIntervalsTest {
+
+    private static BookedInterval interval(UUID id, int startHour, int startMinute, int endHour, int endMinute) {
+        return new BookedInterval(id, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+
+    private static int minutes(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+
+    @Test
+    @DisplayName("overlaps() should detect intersecting intervals and ignore touching ones")
+    void overlaps_ShouldDetectIntersections() {
+        DayIntervals intervals = DayIntervals.of(List.of(
+                interval(UUID.randomUUID(), 11, 0, 11, 30),
+                interval(UUID.randomUUID(), 10, 0, 10, 30)));
+
+        assertThat(intervals.overlaps(minutes(10, 15), minutes(10, 45))).isTrue();
+        assertThat(intervals.overlaps(minutes(9, 0), minutes(12, 0))).isTrue();
+        assertThat(intervals.overlaps(minutes(10, 30), minutes(11, 0))).isFalse();
+        assertThat(intervals.overlaps(minutes(9, 30), minutes(10, 0))).isFalse();
+        assertThat(intervals.overlaps(minutes(11, 30), minutes(12, 0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("overlaps() should find a long interval that starts before shorter ones")
+    void overlaps_ShouldHandleNestedIntervals() {
+        DayIntervals intervals = DayIntervals.of(List.of(
+                interval(UUID.randomUUID(), 9, 0, 13, 0),
+                interval(UUID.randomUUID(), 10, 0, 10, 30)));
+
+        assertThat(intervals.overlaps(minutes(12, 0), minutes(12, 30))).isTrue();
+    }
+
+    @Test
+    @DisplayName("with() and without() should be idempotent by appointment id")
+    void withAndWithout_ShouldBeIdempotent() {
+        UUID id = UUID.randomUUID();
+
+        DayIntervals intervals = DayIntervals.EMPTY
+                .with(id, minutes(10, 0), minutes(10, 30))
+                .with(id, minutes(10, 0), minutes(10, 30));
+        assertThat(intervals.size()).isEqualTo(1);
+        assertThat(intervals.overlaps(minutes(10, 0), minutes(10, 30))).isTrue();
+
+        DayIntervals released = intervals.without(id).without(id);
+        assertThat(released.size()).isZero();
+        assertThat(released.overlaps(minutes(10, 0), minutes(10, 30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("overlaps() should skip the ignored appointment when rescheduling")
+    void overlaps_ShouldSkipIgnoredAppointment() {
+        UUID own = UUID.randomUUID();
+        DayIntervals intervals = DayIntervals.of(List.of(interval(own, 10, 0, 10, 30)));
+
+        assertThat(intervals.overlaps(minutes(10, 15), minutes(10, 45), own)).isFalse();
+        assertThat(intervals.overlaps(minutes(10, 15), minutes(10, 45), UUID.randomUUID())).isTrue();
+    }
+
+    @Test
+    @DisplayName("overlaps() should be exact on bitmap word boundaries")
+    void overlaps_ShouldRespectWordBoundaries() {
+        // 63..65 daqiqa — birinchi va ikkinchi so'z chegarasida, 120..250 — bir nechta so'z
+        DayIntervals intervals = DayIntervals.EMPTY
+                .with(UUID.randomUUID(), 63, 65)
+                .with(UUID.randomUUID(), 120, 250);
+
+        assertThat(intervals.overlaps(60, 63)).isFalse();
+        assertThat(intervals.overlaps(64, 65)).isTrue();
+        assertThat(intervals.overlaps(65, 120)).isFalse();
+        assertThat(intervals.overlaps(249, 250)).isTrue();
+        assertThat(intervals.overlaps(250, minutes(23, 59))).isFalse();
+        assertThat(intervals.overlaps(0, minutes(24, 0))).isTrue();
+    }
+}
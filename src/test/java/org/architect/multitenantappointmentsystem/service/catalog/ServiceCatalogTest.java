@@ -0,0 +1,89 @@
+package org.architect.multitenantappointmentsystem.service.catalog;
+
+import org.architect.multitenantappointmentsystem.dto.response.ServiceResponse;
+import org.architect.multitenantappointmentsystem.repository.projection.StaffServiceLink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceCatalogTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private static ServiceResponse service(String name, boolean active, int displayOrder) {
+        return new ServiceResponse(UUID.randomUUID(), TENANT_ID, "Test Salon", name, null,
+                30, "30 daqiqa", BigDecimal.TEN, "10 so'm", null, active, displayOrder,
+                0, 0, null, null);
+    }
+
+    @Test
+    @DisplayName("of() should keep display order and filter active services")
+    void of_ShouldKeepOrderAndFilterActive() {
+        ServiceResponse haircut = service("Haircut", true, 0);
+        ServiceResponse shave = service("Shave", false, 1);
+        ServiceResponse coloring = service("Coloring", true, 2);
+
+        ServiceCatalog catalog = ServiceCatalog.of(7, List.of(haircut, shave, coloring), List.of());
+
+        assertThat(catalog.version()).isEqualTo(7);
+        assertThat(catalog.services()).containsExactly(haircut, shave, coloring);
+        assertThat(catalog.activeServices()).containsExactly(haircut, coloring);
+    }
+
+    @Test
+    @DisplayName("servicesOfStaff() should map staff to ordered services and know staff without services")
+    void servicesOfStaff_ShouldMapLinks() {
+        ServiceResponse haircut = service("Haircut", true, 0);
+        ServiceResponse coloring = service("Coloring", true, 1);
+        UUID barber = UUID.randomUUID();
+        UUID newcomer = UUID.randomUUID();
+
+        ServiceCatalog catalog = ServiceCatalog.of(1, List.of(haircut, coloring), List.of(
+                new StaffServiceLink(barber, coloring.id()),
+                new StaffServiceLink(barber, haircut.id()),
+                new StaffServiceLink(newcomer, null)));
+
+        assertThat(catalog.servicesOfStaff(barber)).hasValue(List.of(haircut, coloring));
+        assertThat(catalog.servicesOfStaff(newcomer)).hasValue(List.of());
+        assertThat(catalog.servicesOfStaff(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("servicesOfStaff() should skip inactive services linked to staff")
+    void servicesOfStaff_ShouldSkipInactiveServices() {
+        ServiceResponse haircut = service("Haircut", true, 0);
+        ServiceResponse shave = service("Shave", false, 1);
+        UUID barber = UUID.randomUUID();
+        UUID onlyInactive = UUID.randomUUID();
+
+        ServiceCatalog catalog = ServiceCatalog.of(1, List.of(haircut, shave), List.of(
+                new StaffServiceLink(barber, shave.id()),
+                new StaffServiceLink(barber, haircut.id()),
+                new StaffServiceLink(onlyInactive, shave.id())));
+
+        assertThat(catalog.servicesOfStaff(barber)).hasValue(List.of(haircut));
+        // Staff katalogda bor, faqat aktiv servicesi yo'q — NotFound emas, bo'sh ro'yxat
+        assertThat(catalog.servicesOfStaff(onlyInactive)).hasValue(List.of());
+    }
+
+    @Test
+    @DisplayName("service() and hasStaff() should answer id lookups from the snapshot")
+    void idLookups_ShouldUseSnapshot() {
+        ServiceResponse haircut = service("Haircut", true, 0);
+        ServiceResponse shave = service("Shave", false, 1);
+        UUID newcomer = UUID.randomUUID();
+
+        ServiceCatalog catalog = ServiceCatalog.of(1, List.of(haircut, shave), List.of(
+                new StaffServiceLink(newcomer, null)));
+
+        assertThat(catalog.service(shave.id())).hasValue(shave);
+        assertThat(catalog.service(UUID.randomUUID())).isEmpty();
+        assertThat(catalog.hasStaff(newcomer)).isTrue();
+        assertThat(catalog.hasStaff(UUID.randomUUID())).isFalse();
+    }
+}
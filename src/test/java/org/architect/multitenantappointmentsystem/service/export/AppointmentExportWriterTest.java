@@ -0,0 +1,94 @@
+package org.architect.multitenantappointmentsystem.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.exception.BadRequestException;
+import org.architect.multitenantappointmentsystem.repository.projection.AppointmentExportRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppointmentExportWriterTest {
+
+    private final AppointmentExportWriter writer = new AppointmentExportWriter(
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private static AppointmentExportRow row(String customerName) {
+        return new AppointmentExportRow(UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                LocalDate.of(2025, 3, 10), LocalTime.of(10, 0), LocalTime.of(10, 30),
+                AppointmentStatus.CONFIRMED, "Ali", "Soch olish", customerName,
+                "+998901234567", null, new BigDecimal("50000.00"));
+    }
+
+    @Test
+    @DisplayName("CSV: sarlavha + vergul/qo'shtirnoq escape + formula injection himoyasi")
+    void csv_ShouldEscapeValues() throws Exception {
+        StringWriter out = new StringWriter();
+
+        long count = writer.write(AppointmentExportFormat.CSV,
+                Stream.of(row("Karimov, \"Vali\""), row("=HYPERLINK()")), out);
+
+        String[] lines = out.toString().split("\r\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines[0]).isEqualTo(AppointmentExportWriter.CSV_HEADER);
+        assertThat(lines[1]).isEqualTo("00000000-0000-0000-0000-000000000001,2025-03-10,10:00,10:30,CONFIRMED," +
+                "Ali,Soch olish,\"Karimov, \"\"Vali\"\"\",+998901234567,,50000.00");
+        assertThat(lines[2]).contains(",'=HYPERLINK(),");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"=1+2", "+1+2", "-1+2", "@SUM(A1)", "\t=1+2", "\r=1+2"})
+    @DisplayName("CSV: formula belgisi bilan boshlangan matn oldiga ' qo'yiladi")
+    void csv_ShouldGuardEveryFormulaPrefix(String value) {
+        String escaped = AppointmentExportWriter.csv(value);
+
+        // CR bor qiymat qo'shtirnoq ichida chiqadi
+        String cell = escaped.startsWith("\"") ? escaped.substring(1, escaped.length() - 1) : escaped;
+        assertThat(cell).isEqualTo("'" + value);
+    }
+
+    @Test
+    @DisplayName("CSV: normallashtirilgan telefon o'zgarishsiz, boshqa telefon qiymati himoyalanadi")
+    void phone_ShouldStayRawWhenNormalized() {
+        assertThat(AppointmentExportWriter.phone("+998901234567")).isEqualTo("+998901234567");
+        assertThat(AppointmentExportWriter.phone("998901234567")).isEqualTo("998901234567");
+        assertThat(AppointmentExportWriter.phone("+1+cmd")).isEqualTo("'+1+cmd");
+        assertThat(AppointmentExportWriter.phone(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("NDJSON: har bir qator alohida JSON obyekt")
+    void ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        StringWriter out = new StringWriter();
+
+        writer.write(AppointmentExportFormat.NDJSON, Stream.of(row("Vali"), row("Olim")), out);
+
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").endsWith("}")
+                .contains("\"customerName\":\"Vali\"")
+                .contains("\"appointmentDate\":\"2025-03-10\"");
+        assertThat(lines[1]).contains("\"customerName\":\"Olim\"");
+    }
+
+    @Test
+    @DisplayName("Format nomi katta-kichik harfga bog'liq emas, noma'lum format — 400")
+    void format_ShouldParseCaseInsensitive() {
+        assertThat(AppointmentExportFormat.from("ndjson")).isEqualTo(AppointmentExportFormat.NDJSON);
+        assertThat(AppointmentExportFormat.from(null)).isEqualTo(AppointmentExportFormat.CSV);
+        assertThatThrownBy(() -> AppointmentExportFormat.from("xml"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package org.architect.multitenantappointmentsystem.service.pagination;
+
+import org.architect.multitenantappointmentsystem.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppointmentCursorTest {
+
+    @Test
+    @DisplayName("encode() and decode() should round-trip the keyset position")
+    void encodeDecode_ShouldRoundTrip() {
+        AppointmentCursor cursor = new AppointmentCursor(
+                LocalDate.of(2026, 3, 9), LocalTime.of(14, 30), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(AppointmentCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("decode() should treat an empty token as the first page")
+    void decode_WhenBlank_ShouldReturnNull() {
+        assertThat(AppointmentCursor.decode(null)).isNull();
+        assertThat(AppointmentCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    @DisplayName("decode() should reject tampered tokens with BadRequestException")
+    void decode_WhenMalformed_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> AppointmentCursor.decode("not-a-cursor"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Noto'g'ri cursor");
+    }
+}
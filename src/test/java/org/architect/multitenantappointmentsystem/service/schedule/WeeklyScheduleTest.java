@@ -0,0 +1,68 @@
+package org.architect.multitenantappointmentsystem.service.schedule;
+
+import org.architect.multitenantappointmentsystem.dto.response.StaffScheduleResponse;
+import org.architect.multitenantappointmentsystem.entity.StaffSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyScheduleTest {
+
+    private static StaffSchedule schedule(int dayOfWeek, LocalTime start, LocalTime end, boolean available) {
+        StaffSchedule schedule = new StaffSchedule();
+        schedule.setDayOfWeek(dayOfWeek);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        schedule.setIsAvailable(available);
+        return schedule;
+    }
+
+    @Test
+    @DisplayName("of() should pack working hours per ISO day")
+    void of_ShouldPackWorkingHours() {
+        WeeklySchedule week = WeeklySchedule.of(UUID.randomUUID(), "Ali Karimov", List.of(
+                schedule(1, LocalTime.of(9, 0), LocalTime.of(18, 0), true),
+                schedule(7, LocalTime.of(10, 30), LocalTime.of(23, 59), true),
+                schedule(6, LocalTime.of(9, 0), LocalTime.of(14, 0), false)));
+
+        assertThat(week.isWorking(1)).isTrue();
+        assertThat(week.start(1)).isEqualTo(9 * 60);
+        assertThat(week.end(1)).isEqualTo(18 * 60);
+        assertThat(week.start(7)).isEqualTo(10 * 60 + 30);
+        assertThat(week.end(7)).isEqualTo(23 * 60 + 59);
+
+        assertThat(week.hasDay(6)).isTrue();
+        assertThat(week.isWorking(6)).isFalse();
+        assertThat(week.hasDay(3)).isFalse();
+        assertThat(week.isWorking(3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("isWorkingTime() should include both ends like StaffSchedule.isWorkingTime")
+    void isWorkingTime_ShouldIncludeBounds() {
+        WeeklySchedule week = WeeklySchedule.of(UUID.randomUUID(), "Ali Karimov", List.of(
+                schedule(2, LocalTime.of(9, 0), LocalTime.of(18, 0), true)));
+
+        assertThat(week.isWorkingTime(2, 9 * 60)).isTrue();
+        assertThat(week.isWorkingTime(2, 18 * 60)).isTrue();
+        assertThat(week.isWorkingTime(2, 9 * 60 - 1)).isFalse();
+        assertThat(week.isWorkingTime(2, 18 * 60 + 1)).isFalse();
+        assertThat(week.isWorkingTime(3, 10 * 60)).isFalse();
+    }
+
+    @Test
+    @DisplayName("responses() should keep the raw schedule rows for the schedule endpoints")
+    void responses_ShouldMirrorScheduleRows() {
+        UUID staffId = UUID.randomUUID();
+        WeeklySchedule week = WeeklySchedule.of(staffId, "Ali Karimov", List.of(
+                schedule(1, LocalTime.of(9, 0), LocalTime.of(18, 0), false)));
+
+        assertThat(week.responses()).containsExactly(new StaffScheduleResponse(
+                null, staffId, "Ali Karimov", 1, "Dushanba", "09:00", "18:00", false));
+    }
+}
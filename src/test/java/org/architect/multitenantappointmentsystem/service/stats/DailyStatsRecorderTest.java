@@ -0,0 +1,86 @@
+package org.architect.multitenantappointmentsystem.service.stats;
+
+import org.architect.multitenantappointmentsystem.entity.Appointment;
+import org.architect.multitenantappointmentsystem.entity.AppointmentStatus;
+import org.architect.multitenantappointmentsystem.entity.Employement;
+import org.architect.multitenantappointmentsystem.entity.Staff;
+import org.architect.multitenantappointmentsystem.entity.Tenant;
+import org.architect.multitenantappointmentsystem.repository.AppointmentDailyStatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DailyStatsRecorderTest {
+
+    @Mock private AppointmentDailyStatRepository dailyStatRepository;
+
+    @InjectMocks
+    private DailyStatsRecorder recorder;
+
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        Staff staff = new Staff();
+        staff.setId(UUID.randomUUID());
+        Employement service = new Employement();
+        service.setId(UUID.randomUUID());
+
+        appointment = new Appointment();
+        appointment.setTenant(tenant);
+        appointment.setStaff(staff);
+        appointment.setEmployement(service);
+        appointment.setAppointmentDate(LocalDate.of(2025, 3, 10));
+        appointment.setStatus(AppointmentStatus.PENDING);
+        appointment.setTotalPrice(new BigDecimal("50000"));
+    }
+
+    @Test
+    @DisplayName("Status o'zgarsa eski qatordan -1, yangisiga +1 yoziladi")
+    void changed_ShouldMoveCountBetweenStatuses() {
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+
+        recorder.changed(before, appointment);
+
+        verify(dailyStatRepository).applyDelta(before.tenantId(), before.date(), before.staffId(),
+                before.serviceId(), "PENDING", -1, new BigDecimal("-50000"));
+        verify(dailyStatRepository).applyDelta(before.tenantId(), before.date(), before.staffId(),
+                before.serviceId(), "COMPLETED", 1, new BigDecimal("50000"));
+    }
+
+    @Test
+    @DisplayName("Kalit o'zgarmasa rollup ga yozilmaydi")
+    void changed_WhenNothingChanged_ShouldSkip() {
+        DailyStatsRecorder.Snapshot before = DailyStatsRecorder.Snapshot.of(appointment);
+
+        recorder.changed(before, appointment);
+
+        verifyNoInteractions(dailyStatRepository);
+    }
+
+    @Test
+    @DisplayName("Yangi appointment +1 bilan yoziladi")
+    void created_ShouldAddOne() {
+        recorder.created(appointment);
+
+        verify(dailyStatRepository).applyDelta(any(), any(), any(), any(), anyString(), anyLong(), any());
+    }
+}